@@ -0,0 +1,10 @@
+package com.fullstack.debt_manager.cache;
+
+/** Hibernate second-level cache regions, created by {@code HibernateCacheConfig}. */
+public final class CacheRegions {
+    public static final String USERS = "users";
+    public static final String CUSTOMERS = "customers";
+
+    private CacheRegions() {
+    }
+}
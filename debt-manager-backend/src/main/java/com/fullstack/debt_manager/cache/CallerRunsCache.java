@@ -0,0 +1,82 @@
+package com.fullstack.debt_manager.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Caffeine cache whose loads run on the calling thread without holding a lock.
+ * <p>
+ * {@code Cache.get(key, loader)} runs the loader inside {@code ConcurrentHashMap.compute}, and
+ * before JDK 24 a virtual thread blocking in there (on a JDBC round trip, say) stays pinned to
+ * its carrier. Here the map only ever holds a placeholder future while the caller loads, so
+ * concurrent callers for a key still share one load, and an invalidation that lands mid-load
+ * drops the placeholder rather than letting a stale result be cached.
+ */
+public final class CallerRunsCache<K, V> {
+
+    private final AsyncCache<K, V> cache;
+
+    public CallerRunsCache(Caffeine<Object, Object> builder) {
+        this.cache = builder.buildAsync();
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> existing = cache.getIfPresent(key);
+        if (existing == null) {
+            CompletableFuture<V> placeholder = new CompletableFuture<>();
+            existing = cache.asMap().putIfAbsent(key, placeholder);
+            if (existing == null) {
+                return load(key, placeholder, loader);
+            }
+        }
+        return join(existing);
+    }
+
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    public void invalidateAll(Iterable<? extends K> keys) {
+        cache.synchronous().invalidateAll(keys);
+    }
+
+    public Set<K> keys() {
+        return cache.asMap().keySet();
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    // Failed or null loads are removed from the cache by Caffeine once the future completes
+    private V load(K key, CompletableFuture<V> placeholder, Function<? super K, ? extends V> loader) {
+        try {
+            V value = loader.apply(key);
+            placeholder.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            placeholder.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.fullstack.debt_manager.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fullstack.debt_manager.cache.CacheRegions;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hibernate's second-level cache, held in process by Caffeine's JCache provider.
+ *
+ * <p>{@code users} and {@code customers} are READ_WRITE entity regions, updated as the
+ * transactions that change them commit. Only this instance sees those updates, so another
+ * instance keeps serving its own copy until the TTL expires. Customer rows never change once
+ * inserted, and which customers a user has always comes from the database (there is no query
+ * cache), so that bound only matters for users, whose TTL is kept short.
+ *
+ * <p>Off when read replicas are configured: a read on a lagging replica would put the old row
+ * back into the cache right after this instance's own write had replaced it. Set
+ * {@code hibernate-cache.enabled=false} as well when instances must never disagree for even a
+ * TTL. Regions are bounded here rather than by the provider's defaults, and a region Hibernate
+ * asks for that is not listed fails startup instead of growing unbounded.
+ */
+@Configuration
+@ConditionalOnExpression("${hibernate-cache.enabled:true} && '${datasource.replicas.urls:}'.isBlank()")
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${hibernate-cache.users.max-size:10000}") long usersMaxSize,
+            @Value("${hibernate-cache.users.ttl:1m}") Duration usersTtl,
+            @Value("${hibernate-cache.customers.max-size:50000}") long customersMaxSize,
+            @Value("${hibernate-cache.customers.ttl:1h}") Duration customersTtl) {
+        // A URI of its own, so that each application context gets a separate manager
+        URI uri = URI.create("debt-manager:hibernate-cache:" + UUID.randomUUID());
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(uri, getClass().getClassLoader());
+        cacheManager.createCache(CacheRegions.USERS, region(usersMaxSize, usersTtl));
+        cacheManager.createCache(CacheRegions.CUSTOMERS, region(customersMaxSize, customersTtl));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+        };
+    }
+
+    /**
+     * {@code cache.gets} and {@code cache.hit.ratio} per region, read from Hibernate's
+     * statistics, which count the same whether or not the provider keeps its own.
+     */
+    @Bean
+    public MeterBinder hibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : List.of(CacheRegions.USERS, CacheRegions.CUSTOMERS)) {
+                bind(registry, region, statistics, statistics::getDomainDataRegionStatistics);
+            }
+        };
+    }
+
+    private static void bind(MeterRegistry registry, String region,
+                             Statistics statistics, Function<String, CacheRegionStatistics> lookup) {
+        FunctionCounter.builder("cache.gets", statistics, counting(region, lookup, CacheRegionStatistics::getHitCount))
+                .tags("cache", region, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", statistics, counting(region, lookup, CacheRegionStatistics::getMissCount))
+                .tags("cache", region, "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", statistics, stats -> {
+                    CacheRegionStatistics regionStatistics = lookup.apply(region);
+                    if (regionStatistics == null) {
+                        return 0;
+                    }
+                    long gets = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+                    return gets == 0 ? 0 : (double) regionStatistics.getHitCount() / gets;
+                })
+                .tags("cache", region)
+                .description("Share of second-level cache lookups answered by the region")
+                .register(registry);
+    }
+
+    private static ToDoubleFunction<Statistics> counting(String region, Function<String, CacheRegionStatistics> lookup,
+                                                         ToDoubleFunction<CacheRegionStatistics> count) {
+        return stats -> {
+            CacheRegionStatistics regionStatistics = lookup.apply(region);
+            return regionStatistics == null ? 0 : count.applyAsDouble(regionStatistics);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        // Hibernate stores its own immutable cache entries; copying them buys nothing
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
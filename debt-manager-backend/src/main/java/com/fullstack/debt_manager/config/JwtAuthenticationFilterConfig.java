@@ -2,6 +2,7 @@ package com.fullstack.debt_manager.config;
 
 import com.fullstack.debt_manager.security.JwtAuthenticationFilter;
 import com.fullstack.debt_manager.security.JwtUtil;
+import com.fullstack.debt_manager.security.PrincipalCache;
 import com.fullstack.debt_manager.service.UserService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,7 +11,8 @@ import org.springframework.context.annotation.Configuration;
 public class JwtAuthenticationFilterConfig {
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtUtil jwtUtil, UserService userService) {
-        return new JwtAuthenticationFilter(jwtUtil, userService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtUtil jwtUtil, UserService userService,
+                                                           PrincipalCache principalCache) {
+        return new JwtAuthenticationFilter(jwtUtil, userService, principalCache);
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.fullstack.debt_manager.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fullstack.debt_manager.metrics.RequestMetricsFilter;
+import com.fullstack.debt_manager.security.PrincipalCache;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(
+            MeterRegistry registry,
+            @Value("${metrics.request.statement-budget:25}") int statementBudget) {
+        FilterRegistrationBean<RequestMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RequestMetricsFilter(registry, statementBudget));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder principalCacheMetrics(PrincipalCache principalCache) {
+        return registry -> {
+            FunctionCounter.builder("cache.gets", principalCache, PrincipalCache::getHitCount)
+                    .tags("cache", "principals", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", principalCache, PrincipalCache::getMissCount)
+                    .tags("cache", "principals", "result", "miss")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.fullstack.debt_manager.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.debt_manager.security.RateLimitFilter;
+import com.fullstack.debt_manager.security.RateLimitPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.auth.per-minute:10}") long authPerMinute,
+            @Value("${rate-limit.auth.burst:10}") int authBurst,
+            @Value("${rate-limit.search.per-minute:30}") long searchPerMinute,
+            @Value("${rate-limit.search.burst:10}") int searchBurst,
+            @Value("${rate-limit.read.per-minute:600}") long readPerMinute,
+            @Value("${rate-limit.read.burst:100}") int readBurst,
+            @Value("${rate-limit.write.per-minute:60}") long writePerMinute,
+            @Value("${rate-limit.write.burst:30}") int writeBurst,
+            @Value("${rate-limit.idle-expiry:10m}") Duration idleExpiry,
+            @Value("${rate-limit.max-buckets:100000}") long maxBuckets) {
+        return new RateLimitFilter(
+                new RateLimitPolicy("auth", authPerMinute, authBurst),
+                new RateLimitPolicy("search", searchPerMinute, searchBurst),
+                new RateLimitPolicy("read", readPerMinute, readBurst),
+                new RateLimitPolicy("write", writePerMinute, writeBurst),
+                idleExpiry, maxBuckets, objectMapper, meterRegistry, System::nanoTime);
+    }
+
+    // The filter runs inside the security chain, after the JWT filter has resolved the user;
+    // keep Boot from also registering it as a plain servlet filter ahead of security
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,255 @@
+package com.fullstack.debt_manager.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.CustomerChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ *
+ * <p>The physical connection is only fetched at the first statement, once the transaction
+ * manager has marked the connection read-only, which is what lets
+ * {@link LazyConnectionDataSourceProxy} pick the replica side. Replicas are taken round robin
+ * among the healthy ones; one that fails to hand out a connection is ejected until
+ * {@link #checkReplicas()} finds it valid again, and with none left reads fall back to the
+ * primary. The check also ejects replicas whose replication has stopped or fallen more than
+ * {@code maxLag} behind, as long as that is set; such a replica still answers, but with
+ * stale data.
+ *
+ * <p>Replicas lag the primary, so a user whose write committed within {@code stickyWindow}
+ * keeps reading from the primary and sees their own change. So does everyone else the change
+ * touched, such as the debtor of an expense, whose client refetches as soon as it is pushed the
+ * event. The window is kept per instance; the ETag'd lists also check the replica against the
+ * user's data version, which holds on every instance (see {@code DataVersionService}).
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    static final String LAG_QUERY = "SHOW REPLICA STATUS";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Cache<Long, Boolean> recentWriters;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final Counter ejected;
+
+    /** A zero {@code maxLag} turns the lag check off, for replicas that are not MySQL replicas. */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration stickyWindow,
+                                    Duration maxLag, MeterRegistry meterRegistry) {
+        this(primary, replicas, stickyWindow, maxLag, LAG_QUERY, meterRegistry, Ticker.systemTicker());
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration stickyWindow,
+                             Duration maxLag, String lagQuery, MeterRegistry meterRegistry, Ticker ticker) {
+        this.primary = primary;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(index -> new Replica(index, replicas.get(index)))
+                .toList();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .ticker(ticker)
+                .build();
+        this.ejected = meterRegistry.counter("datasource.replicas.ejected");
+        Gauge.builder("datasource.replicas.healthy", this, ReplicaRoutingDataSource::getHealthyCount)
+                .description("Replicas currently taking read-only transactions")
+                .register(meterRegistry);
+        setTargetDataSource(new WriteTracking(primary));
+        setReadOnlyDataSource(new ReplicaSelector());
+        afterPropertiesSet();
+    }
+
+    /**
+     * Re-admits ejected replicas that answer again and have caught up, and ejects healthy ones
+     * that stopped answering or fell behind.
+     */
+    @Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Connection is no longer valid");
+                }
+                String lagging = checkLag(connection);
+                if (lagging != null) {
+                    eject(replica, lagging);
+                } else if (!replica.healthy) {
+                    log.info("Replica {} is back, routing reads to it again", replica.index);
+                    replica.healthy = true;
+                }
+            } catch (SQLException e) {
+                eject(replica, e.getMessage());
+            }
+        }
+    }
+
+    /** Keeps {@code userIds} reading from the primary for the sticky window. */
+    public void stickToPrimary(Collection<Long> userIds) {
+        userIds.forEach(userId -> recentWriters.put(userId, Boolean.TRUE));
+    }
+
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        stickToPrimary(event.affectedUserIds());
+    }
+
+    @TransactionalEventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        stickToPrimary(List.of(event.userId(), event.customerUserId()));
+    }
+
+    public int getHealthyCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    /** Closes the replica pools; the primary is its own bean. */
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // Why the replica is too far behind to read from, or null when it is not
+    private String checkLag(Connection connection) throws SQLException {
+        if (maxLag.isZero()) {
+            return null;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet status = statement.executeQuery(lagQuery)) {
+            if (!status.next()) {
+                return "it is not replicating";
+            }
+            long secondsBehind = status.getLong(secondsBehindColumn(status.getMetaData()));
+            if (status.wasNull()) {
+                return "replication is stopped";
+            }
+            if (secondsBehind > maxLag.toSeconds()) {
+                return "it is " + secondsBehind + "s behind the primary";
+            }
+            return null;
+        }
+    }
+
+    // Seconds_Behind_Source on MySQL 8.0.22 and later, Seconds_Behind_Master on MariaDB
+    private static int secondsBehindColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            String label = metaData.getColumnLabel(column);
+            if (label.equalsIgnoreCase("Seconds_Behind_Source") || label.equalsIgnoreCase("Seconds_Behind_Master")) {
+                return column;
+            }
+        }
+        throw new SQLException("Replica status has no Seconds_Behind_Source column");
+    }
+
+    private void eject(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            ejected.increment();
+            log.warn("Ejecting replica {}: {}", replica.index, reason);
+        }
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    private static final class Replica {
+        private final int index;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+        }
+    }
+
+    // The primary side: remembers whose transaction wrote, once it commits
+    private final class WriteTracking extends DelegatingDataSource {
+        private WriteTracking(DataSource primary) {
+            super(primary);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Long userId = currentUserId();
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(userId, Boolean.TRUE);
+                    }
+                });
+            }
+            return super.getConnection();
+        }
+    }
+
+    // The read-only side: a healthy replica unless the caller just wrote
+    private final class ReplicaSelector extends AbstractDataSource {
+        @Override
+        public Connection getConnection() throws SQLException {
+            Long userId = currentUserId();
+            if (userId == null || recentWriters.getIfPresent(userId) == null) {
+                int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+                for (int i = 0; i < replicas.size(); i++) {
+                    Replica replica = replicas.get((start + i) % replicas.size());
+                    if (!replica.healthy) {
+                        continue;
+                    }
+                    try {
+                        return replica.dataSource.getConnection();
+                    } catch (SQLException e) {
+                        eject(replica, e.getMessage());
+                    }
+                }
+            }
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Replica credentials come from their pools");
+        }
+    }
+}
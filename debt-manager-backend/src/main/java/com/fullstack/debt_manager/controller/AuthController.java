@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -12,6 +13,7 @@ import com.fullstack.debt_manager.dto.AuthRequest;
 import com.fullstack.debt_manager.dto.AuthResponse;
 import com.fullstack.debt_manager.dto.RegisterRequest;
 import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.exception.TooManyRequestsException;
 import com.fullstack.debt_manager.security.JwtUtil;
 import com.fullstack.debt_manager.service.UserService;
 
@@ -34,6 +36,8 @@ public class AuthController {
             
             AuthResponse response = new AuthResponse(jwt, user.getId(), user.getUsername(), user.getEmail(), user.getFullName());
             return ResponseEntity.ok(ApiResponse.success("User registered successfully", response));
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
@@ -53,7 +57,13 @@ public class AuthController {
             return ResponseEntity.ok(ApiResponse.success("Login successful", response));
         } catch (BadCredentialsException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error("Invalid username or password"));
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
+            // A saturated hashing pool during the user lookup arrives wrapped by the provider
+            if (e instanceof InternalAuthenticationServiceException && e.getCause() instanceof TooManyRequestsException busy) {
+                throw busy;
+            }
             return ResponseEntity.badRequest().body(ApiResponse.error("Login failed: " + e.getMessage()));
         }
     }
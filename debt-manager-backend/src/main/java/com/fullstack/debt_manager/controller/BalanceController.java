@@ -0,0 +1,40 @@
+package com.fullstack.debt_manager.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import com.fullstack.debt_manager.dto.ApiResponse;
+import com.fullstack.debt_manager.dto.BalanceDto;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.service.BalanceService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/balances")
+@RequiredArgsConstructor
+public class BalanceController {
+    
+    private final BalanceService balanceService;
+    
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<BalanceDto>>> getBalances(@AuthenticationPrincipal User user) {
+        List<BalanceDto> balances = balanceService.getBalances(user);
+        return ResponseEntity.ok(ApiResponse.success(balances));
+    }
+    
+    @GetMapping("/{userId}")
+    public ResponseEntity<ApiResponse<BalanceDto>> getBalance(
+            @PathVariable Long userId,
+            @AuthenticationPrincipal User user) {
+        
+        try {
+            BalanceDto balance = balanceService.getBalance(user, userId);
+            return ResponseEntity.ok(ApiResponse.success(balance));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
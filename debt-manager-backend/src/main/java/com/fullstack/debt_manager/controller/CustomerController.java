@@ -1,14 +1,20 @@
 package com.fullstack.debt_manager.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.fullstack.debt_manager.dto.ApiResponse;
+import com.fullstack.debt_manager.dto.ChangePage;
 import com.fullstack.debt_manager.dto.UserDto;
 import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.service.ChangeFeedService;
 import com.fullstack.debt_manager.service.CustomerService;
+import com.fullstack.debt_manager.service.DataVersionService;
+import com.fullstack.debt_manager.service.ExpenseService;
 
 import java.util.List;
 
@@ -17,12 +23,34 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CustomerController {
     
+    private static final String PAGE_SIZE = "" + ExpenseService.DEFAULT_PAGE_SIZE;
+    
     private final CustomerService customerService;
+    private final DataVersionService dataVersionService;
+    private final ChangeFeedService changeFeedService;
     
     @GetMapping
-    public ResponseEntity<ApiResponse<List<UserDto>>> getCustomers(@AuthenticationPrincipal User user) {
-        List<UserDto> customers = customerService.getCustomers(user);
-        return ResponseEntity.ok(ApiResponse.success(customers));
+    public ResponseEntity<ApiResponse<List<UserDto>>> getCustomers(
+            @AuthenticationPrincipal User user,
+            WebRequest webRequest) {
+        DataVersionService.Version version = dataVersionService.current(user);
+        if (webRequest.checkNotModified(version.etag())) {
+            return null;
+        }
+        List<UserDto> customers = dataVersionService.readAtLeast(version, () -> customerService.getCustomers(user));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(version.etag())
+                .body(ApiResponse.success(customers));
+    }
+    
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<ChangePage<UserDto>>> getCustomerChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = PAGE_SIZE) int limit,
+            @AuthenticationPrincipal User user) {
+        ChangePage<UserDto> changes = changeFeedService.getCustomerChanges(user, since, limit);
+        return ResponseEntity.ok(ApiResponse.success(changes));
     }
     
     @PostMapping("/{userId}")
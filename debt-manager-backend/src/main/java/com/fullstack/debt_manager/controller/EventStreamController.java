@@ -0,0 +1,25 @@
+package com.fullstack.debt_manager.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.service.EventStreamHub;
+
+@RestController
+@RequestMapping("/events")
+@RequiredArgsConstructor
+public class EventStreamController {
+    
+    private final EventStreamHub eventStreamHub;
+    
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @AuthenticationPrincipal User user) {
+        return eventStreamHub.subscribe(user.getId(), lastEventId);
+    }
+}
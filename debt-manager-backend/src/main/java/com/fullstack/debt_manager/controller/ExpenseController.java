@@ -1,17 +1,42 @@
 package com.fullstack.debt_manager.controller;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.fullstack.debt_manager.dto.ApiResponse;
+import com.fullstack.debt_manager.dto.BulkExpenseResult;
+import com.fullstack.debt_manager.dto.ChangePage;
+import com.fullstack.debt_manager.dto.CursorPage;
 import com.fullstack.debt_manager.dto.ExpenseDto;
 import com.fullstack.debt_manager.dto.ExpenseRequest;
+import com.fullstack.debt_manager.dto.ExpenseSummaryDto;
+import com.fullstack.debt_manager.dto.ExportFormat;
+import com.fullstack.debt_manager.dto.PaymentDto;
+import com.fullstack.debt_manager.dto.PaymentReceiptDto;
+import com.fullstack.debt_manager.dto.PaymentRequest;
+import com.fullstack.debt_manager.dto.StatusUpdateRequest;
+import com.fullstack.debt_manager.dto.StatusUpdateResult;
 import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.service.ChangeFeedService;
+import com.fullstack.debt_manager.service.DataVersionService;
+import com.fullstack.debt_manager.service.ExpenseExportService;
+import com.fullstack.debt_manager.service.ExpenseImportService;
 import com.fullstack.debt_manager.service.ExpenseService;
+import com.fullstack.debt_manager.service.ExpenseSummaryService;
+import com.fullstack.debt_manager.service.PaymentService;
 
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,7 +44,15 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ExpenseController {
     
+    private static final String PAGE_SIZE = "" + ExpenseService.DEFAULT_PAGE_SIZE;
+
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
+    private final ExpenseExportService expenseExportService;
+    private final ExpenseSummaryService expenseSummaryService;
+    private final DataVersionService dataVersionService;
+    private final ChangeFeedService changeFeedService;
+    private final PaymentService paymentService;
     
     @PostMapping
     public ResponseEntity<ApiResponse<ExpenseDto>> createExpense(
@@ -34,30 +67,160 @@ public class ExpenseController {
         }
     }
     
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<BulkExpenseResult>>> importExpenses(
+            @RequestBody List<ExpenseRequest> requests,
+            @AuthenticationPrincipal User user) {
+        
+        try {
+            return importResponse(expenseImportService.importExpenses(requests, user));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<List<BulkExpenseResult>>> importExpensesCsv(
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal User user) {
+        
+        try (InputStream csv = file.getInputStream()) {
+            return importResponse(expenseImportService.importCsv(csv, user));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @PatchMapping("/status")
+    public ResponseEntity<ApiResponse<StatusUpdateResult>> updateStatuses(
+            @Valid @RequestBody StatusUpdateRequest request,
+            @AuthenticationPrincipal User user) {
+        
+        try {
+            StatusUpdateResult result = expenseService.updateStatuses(request, user);
+            return ResponseEntity.ok(ApiResponse.success("Updated " + result.getUpdated() + " expenses", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ExpenseDto>>> getAllExpenses(@AuthenticationPrincipal User user) {
-        List<ExpenseDto> expenses = expenseService.getAllExpensesForUser(user);
-        return ResponseEntity.ok(ApiResponse.success(expenses));
+    public ResponseEntity<ApiResponse<List<ExpenseDto>>> getAllExpenses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE) int limit,
+            @AuthenticationPrincipal User user,
+            WebRequest webRequest) {
+        DataVersionService.Version version = dataVersionService.current(user);
+        if (webRequest.checkNotModified(version.etag())) {
+            return null;
+        }
+        CursorPage<ExpenseDto> expenses = dataVersionService.readAtLeast(version,
+                () -> expenseService.getAllExpensesForUser(user, cursor, limit));
+        return versioned(version.etag(), ApiResponse.page(expenses));
     }
     
     @GetMapping("/created")
-    public ResponseEntity<ApiResponse<List<ExpenseDto>>> getCreatedExpenses(@AuthenticationPrincipal User user) {
-        List<ExpenseDto> expenses = expenseService.getCreatedExpenses(user);
-        return ResponseEntity.ok(ApiResponse.success(expenses));
+    public ResponseEntity<ApiResponse<List<ExpenseDto>>> getCreatedExpenses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE) int limit,
+            @AuthenticationPrincipal User user,
+            WebRequest webRequest) {
+        DataVersionService.Version version = dataVersionService.current(user);
+        if (webRequest.checkNotModified(version.etag())) {
+            return null;
+        }
+        CursorPage<ExpenseDto> expenses = dataVersionService.readAtLeast(version,
+                () -> expenseService.getCreatedExpenses(user, cursor, limit));
+        return versioned(version.etag(), ApiResponse.page(expenses));
     }
     
     @GetMapping("/debts")
-    public ResponseEntity<ApiResponse<List<ExpenseDto>>> getDebtorExpenses(@AuthenticationPrincipal User user) {
-        List<ExpenseDto> expenses = expenseService.getDebtorExpenses(user);
-        return ResponseEntity.ok(ApiResponse.success(expenses));
+    public ResponseEntity<ApiResponse<List<ExpenseDto>>> getDebtorExpenses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE) int limit,
+            @AuthenticationPrincipal User user,
+            WebRequest webRequest) {
+        DataVersionService.Version version = dataVersionService.current(user);
+        if (webRequest.checkNotModified(version.etag())) {
+            return null;
+        }
+        CursorPage<ExpenseDto> expenses = dataVersionService.readAtLeast(version,
+                () -> expenseService.getDebtorExpenses(user, cursor, limit));
+        return versioned(version.etag(), ApiResponse.page(expenses));
     }
     
     @GetMapping("/between/{userId}")
     public ResponseEntity<ApiResponse<List<ExpenseDto>>> getExpensesBetweenUsers(
             @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE) int limit,
+            @AuthenticationPrincipal User user,
+            WebRequest webRequest) {
+        DataVersionService.Version version = dataVersionService.current(user);
+        if (webRequest.checkNotModified(version.etag())) {
+            return null;
+        }
+        CursorPage<ExpenseDto> expenses = dataVersionService.readAtLeast(version,
+                () -> expenseService.getExpensesBetweenUsers(user.getId(), userId, cursor, limit));
+        return versioned(version.etag(), ApiResponse.page(expenses));
+    }
+    
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<ChangePage<ExpenseDto>>> getExpenseChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = PAGE_SIZE) int limit,
+            @AuthenticationPrincipal User user) {
+        ChangePage<ExpenseDto> changes = changeFeedService.getExpenseChanges(user, since, limit);
+        return ResponseEntity.ok(ApiResponse.success(changes));
+    }
+    
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse<ExpenseSummaryDto>> getSummary(@AuthenticationPrincipal User user) {
+        ExpenseSummaryDto summary = expenseSummaryService.getSummary(user);
+        return ResponseEntity.ok(ApiResponse.success(summary));
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal User user) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> expenseExportService.export(user, from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+    
+    @PostMapping("/{id}/payments")
+    public ResponseEntity<ApiResponse<PaymentReceiptDto>> recordPayment(
+            @PathVariable Long id,
+            @Valid @RequestBody PaymentRequest request,
+            @AuthenticationPrincipal User user) {
+        
+        try {
+            PaymentReceiptDto receipt = paymentService.recordPayment(id, request, user);
+            return ResponseEntity.ok(ApiResponse.success("Payment recorded successfully", receipt));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/{id}/payments")
+    public ResponseEntity<ApiResponse<List<PaymentDto>>> getPayments(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE) int limit,
             @AuthenticationPrincipal User user) {
-        List<ExpenseDto> expenses = expenseService.getExpensesBetweenUsers(user.getId(), userId);
-        return ResponseEntity.ok(ApiResponse.success(expenses));
+        
+        try {
+            CursorPage<PaymentDto> payments = paymentService.getPayments(id, cursor, limit, user);
+            return ResponseEntity.ok(ApiResponse.page(payments));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
     }
     
     @GetMapping("/{id}")
@@ -99,4 +262,19 @@ public class ExpenseController {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
     }
-}
\ No newline at end of file
+    
+    // Every page the user can list shares their data version: any change to one of their
+    // expenses moves it, and clients must revalidate before reusing a cached copy
+    private static <T> ResponseEntity<T> versioned(String etag, T body) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(body);
+    }
+    
+    private static ResponseEntity<ApiResponse<List<BulkExpenseResult>>> importResponse(List<BulkExpenseResult> results) {
+        long imported = results.stream().filter(BulkExpenseResult::isSuccess).count();
+        String message = "Imported " + imported + " of " + results.size() + " expenses";
+        return ResponseEntity.ok(ApiResponse.success(message, results));
+    }
+}
@@ -0,0 +1,27 @@
+package com.fullstack.debt_manager.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import com.fullstack.debt_manager.dto.ApiResponse;
+import com.fullstack.debt_manager.dto.SettlementDto;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.service.SettlementService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/settlements")
+@RequiredArgsConstructor
+public class SettlementController {
+    
+    private final SettlementService settlementService;
+    
+    @GetMapping("/plan")
+    public ResponseEntity<ApiResponse<List<SettlementDto>>> getSettlementPlan(@AuthenticationPrincipal User user) {
+        List<SettlementDto> plan = settlementService.getSettlementPlan(user);
+        return ResponseEntity.ok(ApiResponse.success(plan));
+    }
+}
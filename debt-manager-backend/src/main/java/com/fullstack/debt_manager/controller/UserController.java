@@ -27,12 +27,10 @@ public class UserController {
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<UserDto>>> searchUsers(
             @RequestParam String query,
+            @RequestParam(defaultValue = "" + UserService.DEFAULT_SEARCH_RESULTS) int limit,
             @AuthenticationPrincipal User currentUser) {
         
-        List<UserDto> users = userService.searchUsers(query);
-        // Remove current user from search results
-        users.removeIf(user -> user.getId().equals(currentUser.getId()));
-        
+        List<UserDto> users = userService.searchUsers(query, currentUser, limit);
         return ResponseEntity.ok(ApiResponse.success(users));
     }
 }
@@ -1,14 +1,25 @@
 package com.fullstack.debt_manager.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 @AllArgsConstructor
 public class ApiResponse<T> {
     private boolean success;
     private String message;
     private T data;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    public ApiResponse(boolean success, String message, T data) {
+        this(success, message, data, null);
+    }
     
     public static <T> ApiResponse<T> success(T data) {
         return new ApiResponse<>(true, "Success", data);
@@ -17,6 +28,10 @@ public class ApiResponse<T> {
     public static <T> ApiResponse<T> success(String message, T data) {
         return new ApiResponse<>(true, message, data);
     }
+
+    public static <T> ApiResponse<List<T>> page(CursorPage<T> page) {
+        return new ApiResponse<>(true, "Success", page.getItems(), page.getNextCursor());
+    }
     
     public static <T> ApiResponse<T> error(String message) {
         return new ApiResponse<>(false, message, null);
@@ -0,0 +1,18 @@
+package com.fullstack.debt_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceDto {
+    private UserDto counterparty;
+    // Positive when the counterparty owes the current user, negative when the current user owes them
+    private BigDecimal amount;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,24 @@
+package com.fullstack.debt_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkExpenseResult {
+    // 1-based position of the row in the submitted array or CSV body
+    private int row;
+    private boolean success;
+    private Long id;
+    private String error;
+    
+    public static BulkExpenseResult created(int row, Long id) {
+        return new BulkExpenseResult(row, true, id, null);
+    }
+    
+    public static BulkExpenseResult failed(int row, String error) {
+        return new BulkExpenseResult(row, false, null, error);
+    }
+}
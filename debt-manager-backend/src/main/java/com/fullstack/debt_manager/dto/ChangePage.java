@@ -0,0 +1,19 @@
+package com.fullstack.debt_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a delta sync feed. Clients upsert {@code items}, drop the ids in
+ * {@code removed}, store {@code nextCursor} and ask again while {@code hasMore} is set.
+ */
+@Data
+@AllArgsConstructor
+public class ChangePage<T> {
+    private List<T> items;
+    private List<Long> removed;
+    private String nextCursor;
+    private boolean hasMore;
+}
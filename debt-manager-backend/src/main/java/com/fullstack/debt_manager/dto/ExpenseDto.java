@@ -22,4 +22,6 @@ public class ExpenseDto {
     private LocalDateTime updatedAt;
     private LocalDateTime dueDate;
     private String notes;
+    private BigDecimal paid;
+    private BigDecimal remaining;
 }
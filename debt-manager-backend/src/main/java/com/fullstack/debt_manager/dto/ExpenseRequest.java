@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import com.fullstack.debt_manager.entity.ExpenseStatus;
 
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -24,4 +25,10 @@ public class ExpenseRequest {
     private LocalDateTime dueDate;
     private String notes;
     private ExpenseStatus status;
+    
+    // Checked wherever a request is validated, so creates, updates and imports all refuse it
+    @AssertTrue(message = "OVERDUE is set automatically once the due date passes")
+    public boolean isStatusSettable() {
+        return status != ExpenseStatus.OVERDUE;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.fullstack.debt_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSummaryDto {
+    // Expenses the user created, i.e. money owed to them
+    private Direction owedToMe;
+    // Expenses where the user is the debtor
+    private Direction owedByMe;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Direction {
+        private BigDecimal pendingAmount = BigDecimal.ZERO;
+        private long pendingCount;
+        private BigDecimal overdueAmount = BigDecimal.ZERO;
+        private long overdueCount;
+        // Money paid since the start of the month, installments included
+        private BigDecimal paidThisMonthAmount = BigDecimal.ZERO;
+        // Expenses marked PAID since the start of the month
+        private long paidThisMonthCount;
+    }
+}
@@ -0,0 +1,19 @@
+package com.fullstack.debt_manager.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentDto {
+    private Long id;
+    private Long expenseId;
+    private BigDecimal amount;
+    private UserDto recordedBy;
+    private String note;
+    private LocalDateTime paidAt;
+}
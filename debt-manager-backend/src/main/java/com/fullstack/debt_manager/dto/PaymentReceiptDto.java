@@ -0,0 +1,19 @@
+package com.fullstack.debt_manager.dto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentReceiptDto {
+    private PaymentDto payment;
+    // Totals for the expense after this payment
+    private BigDecimal paid;
+    private BigDecimal remaining;
+    private ExpenseStatus status;
+}
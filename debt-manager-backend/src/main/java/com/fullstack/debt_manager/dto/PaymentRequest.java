@@ -0,0 +1,18 @@
+package com.fullstack.debt_manager.dto;
+import lombok.Data;
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+
+@Data
+public class PaymentRequest {
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+    
+    @Size(max = 255, message = "Note must be at most 255 characters")
+    private String note;
+}
@@ -0,0 +1,16 @@
+package com.fullstack.debt_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementDto {
+    private UserDto from;
+    private UserDto to;
+    private BigDecimal amount;
+}
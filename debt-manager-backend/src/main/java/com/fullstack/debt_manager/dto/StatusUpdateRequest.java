@@ -0,0 +1,31 @@
+package com.fullstack.debt_manager.dto;
+import lombok.Data;
+import java.util.List;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+
+/**
+ * Selects the caller's expenses either by id or by debtor, optionally narrowed to one current
+ * status, and moves them all to {@code status}.
+ */
+@Data
+public class StatusUpdateRequest {
+    @Size(max = 1000, message = "At most 1000 ids per request")
+    private List<Long> ids;
+    
+    private Long debtorId;
+    
+    private ExpenseStatus fromStatus;
+    
+    @NotNull(message = "Status is required")
+    private ExpenseStatus status;
+    
+    @AssertTrue(message = "Either ids or debtor_id is required")
+    public boolean isSelective() {
+        return (ids != null && !ids.isEmpty()) || debtorId != null;
+    }
+}
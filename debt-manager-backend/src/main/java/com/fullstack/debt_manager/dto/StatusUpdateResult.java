@@ -0,0 +1,23 @@
+package com.fullstack.debt_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusUpdateResult {
+    private int updated;
+    // How many of the updated expenses were in each status before
+    private Map<ExpenseStatus, Integer> previous;
+    // A debtor filter matched more than one request may change; send it again for the rest
+    private boolean hasMore;
+    // Fully paid expenses left as they were instead of being reopened with nothing owed
+    private List<Long> settled;
+}
@@ -0,0 +1,44 @@
+package com.fullstack.debt_manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a delta sync feed: how far the client has read the changed rows, ordered by
+ * {@code (timestamp, id)}, and separately how far it has read the tombstones. Serialized as
+ * an opaque URL-safe token like {@link ExpenseCursor}.
+ */
+@Data
+@AllArgsConstructor
+public class SyncCursor {
+    public static final SyncCursor START =
+            new SyncCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L, LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private LocalDateTime changedAt;
+    private Long changedId;
+    private LocalDateTime removedAt;
+    private Long removedId;
+
+    public String encode() {
+        String raw = changedAt + "|" + changedId + "|" + removedAt + "|" + removedId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            return new SyncCursor(
+                    LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.fullstack.debt_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running net balance between two users. Each pair is stored once with the lower user
+ * id first; a positive amount means {@code userHigh} owes {@code userLow}.
+ */
+@Entity
+@Table(name = "balances",
+       uniqueConstraints = @UniqueConstraint(name = "uk_balances_pair", columnNames = {"user_low_id", "user_high_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Balance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_low_id", nullable = false)
+    private User userLow;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_high_id", nullable = false)
+    private User userHigh;
+    
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
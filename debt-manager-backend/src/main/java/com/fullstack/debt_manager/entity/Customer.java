@@ -4,11 +4,19 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import com.fullstack.debt_manager.cache.CacheRegions;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers",
+       uniqueConstraints = @UniqueConstraint(name = "uk_customers_user_customer", columnNames = {"user_id", "customer_user_id"}),
+       indexes = @Index(name = "idx_customers_user_created", columnList = "user_id, created_at"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CUSTOMERS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +38,6 @@ public class Customer {
     
     @PrePersist
     public void onCreate() {
-        this.createdAt = LocalDateTime.now();
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -7,9 +7,17 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses",
+       indexes = {
+               @Index(name = "idx_expenses_creator_created", columnList = "creator_id, created_at"),
+               @Index(name = "idx_expenses_debtor_created", columnList = "debtor_id, created_at"),
+               @Index(name = "idx_expenses_creator_updated", columnList = "creator_id, updated_at"),
+               @Index(name = "idx_expenses_debtor_updated", columnList = "debtor_id, updated_at"),
+               @Index(name = "idx_expenses_status_due", columnList = "status, due_date")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -46,14 +54,34 @@ public class Expense {
     
     private String notes;
     
+    // When the due-soon reminder went out; cleared when the due date moves
+    @Column(name = "reminded_at")
+    private LocalDateTime remindedAt;
+    
+    // When the expense last moved to PAID; null while it is not PAID
+    @Column(name = "paid_at")
+    private LocalDateTime paidAt;
+    
+    // datetime(6) rounds away anything below a microsecond; truncating first keeps the managed
+    // entity equal to the stored row, which keyset cursors built from it rely on
     @PrePersist
     public void onCreate() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        this.updatedAt = this.createdAt;
+        trackPaidAt();
     }
     
     @PreUpdate
     public void onUpdate() {
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        trackPaidAt();
+    }
+    
+    private void trackPaidAt() {
+        if (status != ExpenseStatus.PAID) {
+            paidAt = null;
+        } else if (paidAt == null) {
+            paidAt = updatedAt;
+        }
     }
 }
@@ -1,7 +1,19 @@
 package com.fullstack.debt_manager.entity;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum ExpenseStatus {
     PENDING,
     PAID,
-    CANCELLED
+    CANCELLED,
+    // Still owed, past its due date; set by DueDateScheduler
+    OVERDUE;
+
+    /** Statuses whose amount is still owed and counts towards balances. */
+    public static final Set<ExpenseStatus> OUTSTANDING = EnumSet.of(PENDING, OVERDUE);
+
+    public boolean isOutstanding() {
+        return OUTSTANDING.contains(this);
+    }
 }
@@ -0,0 +1,60 @@
+package com.fullstack.debt_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * A domain event written in the transaction that caused it, for the dispatcher to deliver
+ * afterwards. {@code availableAt} is when it may next be claimed: pushed forward while a
+ * delivery is in flight or backing off, and cleared once the event is processed or has used
+ * up its attempts.
+ */
+@Entity
+@Table(name = "outbox_events",
+       indexes = {
+               @Index(name = "idx_outbox_available", columnList = "available_at"),
+               @Index(name = "idx_outbox_processed", columnList = "processed_at")
+       })
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+    
+    @Column(nullable = false, length = 4000)
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "available_at")
+    private LocalDateTime availableAt;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+    
+    public OutboxEvent(String eventType, String payload) {
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+    
+    @PrePersist
+    public void onCreate() {
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        this.availableAt = this.createdAt;
+    }
+}
@@ -0,0 +1,50 @@
+package com.fullstack.debt_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * One installment paid towards an expense. Payments are append-only: corrections are made
+ * with further payments, never by editing or deleting one, which is what lets
+ * {@link PaymentSnapshot} stand in for every payment up to its {@code lastPaymentId}.
+ */
+@Entity
+@Table(name = "payments",
+       indexes = @Index(name = "idx_payments_expense", columnList = "expense_id, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Payment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "expense_id", nullable = false, updatable = false)
+    private Expense expense;
+    
+    @Column(nullable = false, precision = 10, scale = 2, updatable = false)
+    private BigDecimal amount;
+    
+    // Whoever recorded it: the debtor paying, or the creator confirming money received
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recorded_by_id", nullable = false, updatable = false)
+    private User recordedBy;
+    
+    @Column(updatable = false)
+    private String note;
+    
+    @Column(name = "paid_at", nullable = false, updatable = false)
+    private LocalDateTime paidAt;
+    
+    @PrePersist
+    public void onCreate() {
+        this.paidAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
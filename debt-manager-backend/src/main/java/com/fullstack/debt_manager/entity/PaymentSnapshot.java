@@ -0,0 +1,34 @@
+package com.fullstack.debt_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Total paid towards one expense by every payment with an id up to {@code lastPaymentId}.
+ * The amount paid so far is this total plus the payments after it, so reading it never sums
+ * more than the payments made since the last snapshot.
+ */
+@Entity
+@Table(name = "payment_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentSnapshot {
+    @Id
+    @Column(name = "expense_id")
+    private Long expenseId;
+    
+    @Column(name = "paid_total", nullable = false, precision = 12, scale = 2)
+    private BigDecimal paidTotal;
+    
+    @Column(name = "last_payment_id", nullable = false)
+    private Long lastPaymentId;
+    
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+}
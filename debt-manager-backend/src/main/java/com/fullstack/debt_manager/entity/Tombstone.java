@@ -0,0 +1,59 @@
+package com.fullstack.debt_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Record that an entity left a user's view, so delta sync can tell clients to drop it. An
+ * expense deleted outright leaves one for the creator and one for the debtor; moving it to
+ * another debtor leaves one for the previous debtor. For customers {@code entityId} is the
+ * customer's user id, which is what clients key their list on.
+ */
+@Entity
+@Table(name = "tombstones",
+       indexes = {
+               @Index(name = "idx_tombstones_user_type_deleted", columnList = "user_id, entity_type, deleted_at"),
+               @Index(name = "idx_tombstones_deleted", columnList = "deleted_at")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private EntityType entityType;
+    
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    public Tombstone(EntityType entityType, Long entityId, Long userId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.userId = userId;
+    }
+    
+    @PrePersist
+    public void onCreate() {
+        this.deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+    
+    public enum EntityType {
+        EXPENSE,
+        CUSTOMER
+    }
+}
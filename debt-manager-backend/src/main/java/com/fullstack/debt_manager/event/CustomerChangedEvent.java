@@ -0,0 +1,21 @@
+package com.fullstack.debt_manager.event;
+
+/**
+ * Published by the customer list write paths inside their transaction. Only the owner's view
+ * changes; the customer user does not see who lists them.
+ */
+public record CustomerChangedEvent(ChangeType type, Long userId, Long customerUserId) {
+
+    public enum ChangeType {
+        ADDED,
+        REMOVED
+    }
+
+    public static CustomerChangedEvent added(Long userId, Long customerUserId) {
+        return new CustomerChangedEvent(ChangeType.ADDED, userId, customerUserId);
+    }
+
+    public static CustomerChangedEvent removed(Long userId, Long customerUserId) {
+        return new CustomerChangedEvent(ChangeType.REMOVED, userId, customerUserId);
+    }
+}
@@ -0,0 +1,41 @@
+package com.fullstack.debt_manager.event;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Published by the expense write paths inside their transaction. {@code previousDebtorId} is
+ * set only when an update moved the expense to a different debtor.
+ */
+public record ExpenseChangedEvent(ChangeType type, Long expenseId, Long creatorId, Long debtorId, Long previousDebtorId) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ExpenseChangedEvent created(Long expenseId, Long creatorId, Long debtorId) {
+        return new ExpenseChangedEvent(ChangeType.CREATED, expenseId, creatorId, debtorId, null);
+    }
+
+    public static ExpenseChangedEvent updated(Long expenseId, Long creatorId, Long debtorId, Long previousDebtorId) {
+        return new ExpenseChangedEvent(ChangeType.UPDATED, expenseId, creatorId, debtorId,
+                debtorId.equals(previousDebtorId) ? null : previousDebtorId);
+    }
+
+    public static ExpenseChangedEvent deleted(Long expenseId, Long creatorId, Long debtorId) {
+        return new ExpenseChangedEvent(ChangeType.DELETED, expenseId, creatorId, debtorId, null);
+    }
+
+    /** Every user whose view of their expenses changed. */
+    public Set<Long> affectedUserIds() {
+        Set<Long> ids = new LinkedHashSet<>();
+        ids.add(creatorId);
+        ids.add(debtorId);
+        if (previousDebtorId != null) {
+            ids.add(previousDebtorId);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,10 @@
+package com.fullstack.debt_manager.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published inside the transaction when an outstanding expense is saved with a due date, so
+ * deadlines inside the window the scheduler already loaded are not missed.
+ */
+public record ExpenseDueDateChangedEvent(Long expenseId, LocalDateTime dueDate) {
+}
@@ -0,0 +1,7 @@
+package com.fullstack.debt_manager.event;
+
+import java.time.LocalDateTime;
+
+/** Published when a pending expense comes within the reminder lead time of its due date. */
+public record ExpenseReminderEvent(Long expenseId, Long creatorId, Long debtorId, LocalDateTime dueDate) {
+}
@@ -0,0 +1,21 @@
+package com.fullstack.debt_manager.event;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+/**
+ * A domain event handed back by the outbox dispatcher after its transaction committed. Listen
+ * with {@code @EventListener void on(OutboxDelivery<ExpenseChangedEvent> delivery)}; an
+ * exception makes the dispatcher retry the delivery later, so handlers must be idempotent.
+ *
+ * <p>Each event is delivered on one instance only, whichever claimed it. That suits side effects
+ * that must happen once per change, such as sending a notification, but not per-instance state:
+ * caches and stream subscribers listen for the domain event after commit instead.
+ */
+public record OutboxDelivery<E>(Long outboxId, int attempt, E event) implements ResolvableTypeProvider {
+
+    @Override
+    public ResolvableType getResolvableType() {
+        return ResolvableType.forClassWithGenerics(OutboxDelivery.class, ResolvableType.forInstance(event));
+    }
+}
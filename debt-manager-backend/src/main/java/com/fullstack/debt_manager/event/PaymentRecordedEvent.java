@@ -0,0 +1,5 @@
+package com.fullstack.debt_manager.event;
+
+/** Published by {@code PaymentService} inside the transaction that records a payment. */
+public record PaymentRecordedEvent(Long expenseId, Long paymentId) {
+}
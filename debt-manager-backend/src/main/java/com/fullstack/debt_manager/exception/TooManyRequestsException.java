@@ -0,0 +1,20 @@
+package com.fullstack.debt_manager.exception;
+
+import java.time.Duration;
+
+/**
+ * Raised when a bounded resource is saturated; answered with 429 and a {@code Retry-After}.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,43 @@
+package com.fullstack.debt_manager.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Hibernate statistics that also attribute statements, query result rows and entity loads to
+ * the current request. Installed with {@code hibernate.stats.factory} and only called by
+ * Hibernate while {@code hibernate.generate_statistics} is on.
+ */
+public class QueryCountingStatistics extends StatisticsImpl {
+
+    public QueryCountingStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void prepareStatement() {
+        super.prepareStatement();
+        RequestQueryStats.statementPrepared();
+    }
+
+    @Override
+    public void queryExecuted(String query, int rows, long time) {
+        super.queryExecuted(query, rows, time);
+        RequestQueryStats.rowsFetched(rows);
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+        RequestQueryStats.entityLoaded();
+    }
+
+    public static class Factory implements StatisticsFactory {
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new QueryCountingStatistics(sessionFactory);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fullstack.debt_manager.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the statements, rows and entities each request needed, tagged like
+ * {@code http.server.requests}, and logs requests that go over the statement budget.
+ * Runs ahead of the security chain so principal lookups are counted too.
+ */
+@Slf4j
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final int statementBudget;
+
+    public RequestMetricsFilter(MeterRegistry registry, int statementBudget) {
+        this.registry = registry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueryStats.stop();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        summary("request.jdbc.statements", "JDBC statements per request", tags)
+                .record(stats.getStatements());
+        summary("request.jdbc.rows", "Query result rows per request", tags)
+                .record(stats.getRows());
+        summary("request.entities.loaded", "Entities loaded per request", tags)
+                .record(stats.getEntities());
+
+        if (statementBudget > 0 && stats.getStatements() > statementBudget) {
+            registry.counter("request.jdbc.budget.exceeded", tags).increment();
+            log.warn("{} {} issued {} SQL statements (budget {}), {} rows, {} entities loaded",
+                    request.getMethod(), uri, stats.getStatements(), statementBudget,
+                    stats.getRows(), stats.getEntities());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.fullstack.debt_manager.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.fullstack.debt_manager.entity.Balance;
+import com.fullstack.debt_manager.entity.User;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceRepository extends JpaRepository<Balance, Long> {
+    @Query("SELECT b FROM Balance b JOIN FETCH b.userLow JOIN FETCH b.userHigh " +
+           "WHERE (b.userLow = :user OR b.userHigh = :user) AND b.amount <> 0")
+    List<Balance> findOpenBalancesForUser(@Param("user") User user);
+
+    @Query("SELECT b FROM Balance b WHERE b.userLow.id = :lowId AND b.userHigh.id = :highId")
+    Optional<Balance> findByPair(@Param("lowId") Long lowId, @Param("highId") Long highId);
+
+    // Relative, single-statement upsert: concurrent writers to the same pair serialize on the
+    // row lock instead of racing on a read-modify-write. Naming the table it writes keeps
+    // Hibernate from evicting every second-level cache region after each native update.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "balances"))
+    @Query(value = "INSERT INTO balances (user_low_id, user_high_id, amount, updated_at) " +
+                   "VALUES (:lowId, :highId, :delta, NOW(6)) " +
+                   "ON DUPLICATE KEY UPDATE amount = amount + :delta, updated_at = NOW(6)",
+           nativeQuery = true)
+    int applyDelta(@Param("lowId") Long lowId, @Param("highId") Long highId, @Param("delta") BigDecimal delta);
+}
@@ -1,12 +1,15 @@
 package com.fullstack.debt_manager.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.fullstack.debt_manager.entity.Customer;
 import com.fullstack.debt_manager.entity.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +18,12 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findByUser(User user);
     Optional<Customer> findByUserAndCustomerUser(User user, User customerUser);
     boolean existsByUserAndCustomerUser(User user, User customerUser);
+
+    @Query("SELECT c FROM Customer c JOIN FETCH c.customerUser WHERE c.user = :user " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt, c.id")
+    List<Customer> findAddedSince(@Param("user") User user,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  Pageable pageable);
 }
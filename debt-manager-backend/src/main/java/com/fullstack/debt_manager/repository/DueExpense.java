@@ -0,0 +1,8 @@
+package com.fullstack.debt_manager.repository;
+
+import java.time.LocalDateTime;
+
+public interface DueExpense {
+    Long getId();
+    LocalDateTime getDueDate();
+}
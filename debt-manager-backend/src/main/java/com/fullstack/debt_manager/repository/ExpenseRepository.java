@@ -1,22 +1,170 @@
 package com.fullstack.debt_manager.repository;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
 import com.fullstack.debt_manager.entity.User;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
-    List<Expense> findByCreatorOrderByCreatedAtDesc(User creator);
-    List<Expense> findByDebtorOrderByCreatedAtDesc(User debtor);
+    /** Selects {@link ExpenseRow}s: each expense with its parties and what has been paid towards it. */
+    String SELECT_ROWS = "SELECT e AS expense, " + PaymentRepository.PAID + " AS paid " +
+                         "FROM Expense e JOIN FETCH e.creator JOIN FETCH e.debtor" + PaymentRepository.SNAPSHOT_JOIN;
+
+    @EntityGraph(attributePaths = {"creator", "debtor"})
+    Optional<Expense> findWithPartiesById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Expense e WHERE e.id = :id")
+    Optional<Expense> findByIdForUpdate(@Param("id") Long id);
+
+    @Query(SELECT_ROWS + "WHERE e.creator = :user " +
+           "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<ExpenseRow> findCreatedSeek(@Param("user") User creator,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Query(SELECT_ROWS + "WHERE e.debtor = :user " +
+           "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<ExpenseRow> findDebtsSeek(@Param("user") User debtor,
+                                   @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
     
-    @Query("SELECT e FROM Expense e WHERE e.creator = :user OR e.debtor = :user ORDER BY e.createdAt DESC")
-    List<Expense> findAllExpensesForUser(@Param("user") User user);
+    @Query(SELECT_ROWS + "WHERE (e.creator = :user OR e.debtor = :user) " +
+           "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<ExpenseRow> findAllExpensesForUserSeek(@Param("user") User user,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
     
-    @Query("SELECT e FROM Expense e WHERE (e.creator = :user1 AND e.debtor = :user2) OR (e.creator = :user2 AND e.debtor = :user1) ORDER BY e.createdAt DESC")
-    List<Expense> findExpensesBetweenUsers(@Param("user1") User user1, @Param("user2") User user2);
+    @Query(SELECT_ROWS + "WHERE ((e.creator = :user1 AND e.debtor = :user2) OR (e.creator = :user2 AND e.debtor = :user1)) " +
+           "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<ExpenseRow> findExpensesBetweenUsersSeek(@Param("user1") User user1,
+                                                  @Param("user2") User user2,
+                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") Long id,
+                                                  Pageable pageable);
+
+    @Query(SELECT_ROWS + "WHERE (e.creator = :user OR e.debtor = :user) " +
+           "AND (e.updatedAt > :updatedAt OR (e.updatedAt = :updatedAt AND e.id > :id)) " +
+           "ORDER BY e.updatedAt, e.id")
+    List<ExpenseRow> findChangedSince(@Param("user") User user,
+                                      @Param("updatedAt") LocalDateTime updatedAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    // What is still owed on the user's own expenses: amounts less whatever has been paid towards them
+    @Query("SELECT e.creator.id AS creatorId, e.debtor.id AS debtorId, " +
+           "SUM(e.amount - " + PaymentRepository.PAID + ") AS total FROM Expense e" + PaymentRepository.SNAPSHOT_JOIN +
+           "WHERE e.status IN :statuses AND (e.creator.id = :userId OR e.debtor.id = :userId) " +
+           "GROUP BY e.creator.id, e.debtor.id")
+    List<PairTotal> sumByPairInvolving(@Param("statuses") Collection<ExpenseStatus> statuses,
+                                       @Param("userId") Long userId);
+
+    // Seeks idx_expenses_status_due; InnoDB appends the id, so the tie-breaker is covered too
+    @Query("SELECT e.id AS id, e.dueDate AS dueDate FROM Expense e WHERE e.status = :status " +
+           "AND (e.dueDate > :dueDate OR (e.dueDate = :dueDate AND e.id > :id)) AND e.dueDate <= :until " +
+           "ORDER BY e.dueDate, e.id")
+    List<DueExpense> findDueSeek(@Param("status") ExpenseStatus status,
+                                 @Param("dueDate") LocalDateTime dueDate,
+                                 @Param("id") Long id,
+                                 @Param("until") LocalDateTime until,
+                                 Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Expense e WHERE e.id IN :ids AND e.status = :status AND e.dueDate <= :dueBy")
+    List<Expense> findDueForUpdate(@Param("ids") Collection<Long> ids,
+                                   @Param("status") ExpenseStatus status,
+                                   @Param("dueBy") LocalDateTime dueBy);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id AS id, e.debtor.id AS debtorId, e.amount AS amount, e.status AS status, e.dueDate AS dueDate, " +
+           PaymentRepository.PAID + " AS paid FROM Expense e" + PaymentRepository.SNAPSHOT_JOIN + "WHERE e.creator = :creator AND e.id IN :ids AND e.status IN :from ORDER BY e.id")
+    List<StatusChange> findStatusChangesByIds(@Param("creator") User creator,
+                                              @Param("ids") Collection<Long> ids,
+                                              @Param("from") Collection<ExpenseStatus> from);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id AS id, e.debtor.id AS debtorId, e.amount AS amount, e.status AS status, e.dueDate AS dueDate, " +
+           PaymentRepository.PAID + " AS paid FROM Expense e" + PaymentRepository.SNAPSHOT_JOIN + "WHERE e.creator = :creator AND e.debtor.id = :debtorId AND e.status IN :from ORDER BY e.id")
+    List<StatusChange> findStatusChangesByDebtor(@Param("creator") User creator,
+                                                 @Param("debtorId") Long debtorId,
+                                                 @Param("from") Collection<ExpenseStatus> from,
+                                                 Pageable pageable);
+
+    // Bulk updates skip @PreUpdate, so updatedAt is set here; the creator scope repeats the
+    // ownership check in the statement itself
+    @Modifying
+    @Query("UPDATE Expense e SET e.status = :status, e.updatedAt = :now, " +
+           "e.paidAt = CASE WHEN :status = com.fullstack.debt_manager.entity.ExpenseStatus.PAID THEN :now ELSE NULL END " +
+           "WHERE e.creator = :creator AND e.id IN :ids")
+    int updateStatus(@Param("creator") User creator,
+                     @Param("ids") Collection<Long> ids,
+                     @Param("status") ExpenseStatus status,
+                     @Param("now") LocalDateTime now);
+
+    // A bulk update, so the reminder does not bump updatedAt and resend the row to every change feed
+    @Modifying
+    @Query("UPDATE Expense e SET e.remindedAt = :now WHERE e.id IN :ids")
+    int markReminded(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the result set.
+    // Paid is read in the same statement because nothing else can run on the connection while it streams
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_ROWS + "WHERE (e.creator = :user OR e.debtor = :user) AND e.createdAt >= :from AND e.createdAt < :to " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    Stream<ExpenseRow> streamForExport(@Param("user") User user,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    // Totals and overdue totals are what is still owed. Money paid since :since is the payments made
+    // in the period plus, for expenses marked PAID in it, whatever no payment covered
+    @Query("SELECT e.status AS status, COUNT(e) AS count, SUM(e.amount - " + PaymentRepository.PAID + ") AS total, " +
+           "SUM(CASE WHEN e.dueDate < :now THEN 1 ELSE 0 END) AS overdueCount, " +
+           "SUM(CASE WHEN e.dueDate < :now THEN e.amount - " + PaymentRepository.PAID + " ELSE 0BD END) AS overdueTotal, " +
+           "SUM(CASE WHEN e.paidAt >= :since THEN 1 ELSE 0 END) AS settledCount, " +
+           "SUM(CASE WHEN e.paidAt >= :since THEN e.amount - " + PaymentRepository.PAID + " ELSE 0BD END + " +
+           PaymentRepository.PAID_SINCE + ") AS paidSinceTotal " +
+           "FROM Expense e" + PaymentRepository.SNAPSHOT_JOIN + "WHERE e.creator = :user GROUP BY e.status")
+    List<StatusTotals> summarizeCreated(@Param("user") User creator,
+                                        @Param("now") LocalDateTime now,
+                                        @Param("since") LocalDateTime since);
+
+    @Query("SELECT e.status AS status, COUNT(e) AS count, SUM(e.amount - " + PaymentRepository.PAID + ") AS total, " +
+           "SUM(CASE WHEN e.dueDate < :now THEN 1 ELSE 0 END) AS overdueCount, " +
+           "SUM(CASE WHEN e.dueDate < :now THEN e.amount - " + PaymentRepository.PAID + " ELSE 0BD END) AS overdueTotal, " +
+           "SUM(CASE WHEN e.paidAt >= :since THEN 1 ELSE 0 END) AS settledCount, " +
+           "SUM(CASE WHEN e.paidAt >= :since THEN e.amount - " + PaymentRepository.PAID + " ELSE 0BD END + " +
+           PaymentRepository.PAID_SINCE + ") AS paidSinceTotal " +
+           "FROM Expense e" + PaymentRepository.SNAPSHOT_JOIN + "WHERE e.debtor = :user GROUP BY e.status")
+    List<StatusTotals> summarizeDebts(@Param("user") User debtor,
+                                      @Param("now") LocalDateTime now,
+                                      @Param("since") LocalDateTime since);
 }
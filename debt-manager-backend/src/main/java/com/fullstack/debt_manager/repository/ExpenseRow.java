@@ -0,0 +1,11 @@
+package com.fullstack.debt_manager.repository;
+
+import java.math.BigDecimal;
+
+import com.fullstack.debt_manager.entity.Expense;
+
+// An expense with the amount paid towards it, read in the same statement
+public interface ExpenseRow {
+    Expense getExpense();
+    BigDecimal getPaid();
+}
@@ -0,0 +1,9 @@
+package com.fullstack.debt_manager.repository;
+
+import java.math.BigDecimal;
+
+public interface PairTotal {
+    Long getCreatorId();
+    Long getDebtorId();
+    BigDecimal getTotal();
+}
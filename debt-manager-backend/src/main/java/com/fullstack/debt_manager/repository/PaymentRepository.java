@@ -0,0 +1,50 @@
+package com.fullstack.debt_manager.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.fullstack.debt_manager.entity.Payment;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+    /**
+     * Amount paid towards expense {@code e}: its snapshot {@code s} (joined with
+     * {@link #SNAPSHOT_JOIN}) plus the payments after it, read from idx_payments_expense.
+     */
+    String PAID = "(COALESCE(s.paidTotal, 0) + COALESCE((SELECT SUM(p.amount) FROM Payment p " +
+                  "WHERE p.expense.id = e.id AND p.id > COALESCE(s.lastPaymentId, 0)), 0))";
+    // Amount paid towards expense {@code e} at or after :since, whether or not it is in the snapshot yet
+    String PAID_SINCE = "COALESCE((SELECT SUM(ps.amount) FROM Payment ps " +
+                        "WHERE ps.expense.id = e.id AND ps.paidAt >= :since), 0)";
+    String SNAPSHOT_JOIN = " LEFT JOIN PaymentSnapshot s ON s.expenseId = e.id ";
+
+    @Query("SELECT e.id AS expenseId, " + PAID + " AS paid FROM Expense e" + SNAPSHOT_JOIN +
+           "WHERE e.id IN :expenseIds")
+    List<PaidTotal> findPaidTotals(@Param("expenseIds") Collection<Long> expenseIds);
+
+    default BigDecimal paidTowards(Long expenseId) {
+        return findPaidTotals(List.of(expenseId)).stream()
+                .map(PaidTotal::getPaid)
+                .findFirst()
+                .orElse(BigDecimal.ZERO);
+    }
+
+    @Query("SELECT SUM(p.amount) AS total, MAX(p.id) AS lastPaymentId FROM Payment p " +
+           "WHERE p.expense.id = :expenseId AND p.id > :afterId")
+    PaymentTail findTail(@Param("expenseId") Long expenseId, @Param("afterId") Long afterId);
+
+    @Query("SELECT p FROM Payment p JOIN FETCH p.recordedBy WHERE p.expense.id = :expenseId AND p.id < :beforeId " +
+           "ORDER BY p.id DESC")
+    List<Payment> findPageByExpense(@Param("expenseId") Long expenseId,
+                                    @Param("beforeId") Long beforeId,
+                                    Pageable pageable);
+
+    boolean existsByExpenseId(Long expenseId);
+}
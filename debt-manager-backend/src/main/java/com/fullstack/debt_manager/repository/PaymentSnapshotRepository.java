@@ -0,0 +1,10 @@
+package com.fullstack.debt_manager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.fullstack.debt_manager.entity.PaymentSnapshot;
+
+@Repository
+public interface PaymentSnapshotRepository extends JpaRepository<PaymentSnapshot, Long> {
+}
@@ -0,0 +1,8 @@
+package com.fullstack.debt_manager.repository;
+
+import java.math.BigDecimal;
+
+public interface PaymentTail {
+    BigDecimal getTotal();
+    Long getLastPaymentId();
+}
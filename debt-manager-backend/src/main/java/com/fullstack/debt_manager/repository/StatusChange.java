@@ -0,0 +1,15 @@
+package com.fullstack.debt_manager.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+
+public interface StatusChange {
+    Long getId();
+    Long getDebtorId();
+    BigDecimal getAmount();
+    ExpenseStatus getStatus();
+    LocalDateTime getDueDate();
+    BigDecimal getPaid();
+}
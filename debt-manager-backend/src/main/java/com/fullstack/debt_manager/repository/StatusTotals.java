@@ -0,0 +1,18 @@
+package com.fullstack.debt_manager.repository;
+
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+
+import java.math.BigDecimal;
+
+public interface StatusTotals {
+    ExpenseStatus getStatus();
+    Long getCount();
+    BigDecimal getTotal();
+    // Rows whose due date is before the reference time
+    Long getOverdueCount();
+    BigDecimal getOverdueTotal();
+    // Rows marked PAID at or after the reference period start
+    Long getSettledCount();
+    // Money paid in that period: installments, plus the remainder of the rows marked PAID in it
+    BigDecimal getPaidSinceTotal();
+}
@@ -0,0 +1,29 @@
+package com.fullstack.debt_manager.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.fullstack.debt_manager.entity.Tombstone;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+    @Query("SELECT t FROM Tombstone t WHERE t.userId = :userId AND t.entityType = :type " +
+           "AND (t.deletedAt > :deletedAt OR (t.deletedAt = :deletedAt AND t.id > :id)) " +
+           "ORDER BY t.deletedAt, t.id")
+    List<Tombstone> findSince(@Param("userId") Long userId,
+                              @Param("type") Tombstone.EntityType type,
+                              @Param("deletedAt") LocalDateTime deletedAt,
+                              @Param("id") Long id,
+                              Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,8 @@
+package com.fullstack.debt_manager.repository;
+
+public interface UserSearchTerms {
+    Long getId();
+    String getUsername();
+    String getEmail();
+    String getFullName();
+}
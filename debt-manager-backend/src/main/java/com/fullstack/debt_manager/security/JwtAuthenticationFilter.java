@@ -21,6 +21,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final PrincipalCache principalCache;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -30,10 +31,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                String username = jwtUtil.extractUsername(jwt);
-                UserDetails userDetails = userService.loadUserByUsername(username);
+                VerifiedToken token = jwtUtil.verify(jwt);
+                UserDetails userDetails = principalCache.get(
+                        token.username(), token.issuedAt(), userService::loadUserByUsername);
                 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (jwtUtil.validateToken(token, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
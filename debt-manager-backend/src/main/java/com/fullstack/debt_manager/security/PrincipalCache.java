@@ -0,0 +1,58 @@
+package com.fullstack.debt_manager.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.fullstack.debt_manager.cache.CallerRunsCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Authenticated principals keyed by username and token issue time, so a token only costs a
+ * {@code users} lookup the first time it is seen within the TTL. The lookup runs on the request
+ * thread outside any cache lock, which keeps virtual threads unpinned during the query.
+ */
+@Component
+public class PrincipalCache {
+    
+    private final CallerRunsCache<Key, UserDetails> cache;
+    
+    @Autowired
+    public PrincipalCache(@Value("${jwt.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${jwt.principal-cache.ttl:5m}") Duration ttl) {
+        this(maxSize, ttl, Ticker.systemTicker());
+    }
+    
+    PrincipalCache(long maxSize, Duration ttl, Ticker ticker) {
+        this.cache = new CallerRunsCache<>(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats());
+    }
+    
+    public UserDetails get(String username, Date issuedAt, Function<String, UserDetails> loader) {
+        return cache.get(new Key(username, issuedAt.getTime()), key -> loader.apply(key.username()));
+    }
+    
+    // Must be called whenever anything a principal carries (profile, password) changes
+    public void invalidate(String username) {
+        cache.keys().removeIf(key -> key.username().equals(username));
+    }
+    
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+    
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+    
+    private record Key(String username, long issuedAt) {
+    }
+}
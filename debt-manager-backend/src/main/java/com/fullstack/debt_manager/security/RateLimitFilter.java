@@ -0,0 +1,118 @@
+package com.fullstack.debt_manager.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fullstack.debt_manager.dto.ApiResponse;
+import com.fullstack.debt_manager.entity.User;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets, checked right after {@link JwtAuthenticationFilter}. Authenticated
+ * requests are keyed by user id, everything else (including all of {@code /auth/**}) by remote
+ * address, and each route class has its own budget. Idle buckets expire, so memory follows the
+ * number of active clients. Behind a proxy the remote address is only the client's once
+ * {@code server.forward-headers-strategy} has resolved it from trusted forwarding headers.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitPolicy auth;
+    private final RateLimitPolicy search;
+    private final RateLimitPolicy reads;
+    private final RateLimitPolicy writes;
+    private final Cache<Key, TokenBucket> buckets;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final LongSupplier clock;
+
+    public RateLimitFilter(RateLimitPolicy auth, RateLimitPolicy search, RateLimitPolicy reads, RateLimitPolicy writes,
+                           Duration idleExpiry, long maxBuckets, ObjectMapper objectMapper, MeterRegistry registry,
+                           LongSupplier clock) {
+        this.auth = auth;
+        this.search = search;
+        this.reads = reads;
+        this.writes = writes;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleExpiry)
+                .maximumSize(maxBuckets)
+                .build();
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.clock = clock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.OPTIONS.matches(request.getMethod()) || path(request).startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimitPolicy policy = policyFor(request);
+        String client = clientOf(request, policy);
+        long now = clock.getAsLong();
+        long wait = buckets.get(new Key(policy, client), key -> new TokenBucket(policy, now)).tryAcquire(now);
+        if (wait > 0) {
+            reject(response, policy, wait);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private RateLimitPolicy policyFor(HttpServletRequest request) {
+        String path = path(request);
+        if (path.startsWith("/auth/")) {
+            return auth;
+        }
+        if (path.equals("/users/search")) {
+            return search;
+        }
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+                ? reads : writes;
+    }
+
+    private String clientOf(HttpServletRequest request, RateLimitPolicy policy) {
+        if (policy != auth) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof User user) {
+                return "user:" + user.getId();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, RateLimitPolicy policy, long waitNanos) throws IOException {
+        registry.counter("rate.limit.rejected", "policy", policy.name()).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Rate limit exceeded, retry in " + retryAfterSeconds + "s"));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private record Key(RateLimitPolicy policy, String client) {
+    }
+}
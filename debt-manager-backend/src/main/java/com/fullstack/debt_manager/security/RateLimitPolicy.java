@@ -0,0 +1,19 @@
+package com.fullstack.debt_manager.security;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A named request budget: a sustained rate plus how many requests may arrive at once.
+ */
+public record RateLimitPolicy(String name, long permitsPerMinute, int burst) {
+
+    public RateLimitPolicy {
+        if (permitsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a positive rate and burst");
+        }
+    }
+
+    long emissionIntervalNanos() {
+        return TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+    }
+}
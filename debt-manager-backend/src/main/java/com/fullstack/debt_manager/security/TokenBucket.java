@@ -0,0 +1,41 @@
+package com.fullstack.debt_manager.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single timestamp (the generic cell rate algorithm): the
+ * bucket is full when the theoretical arrival time is at or before now, and each permit pushes
+ * it one emission interval further. A request is refused once that would put it more than
+ * {@code burst} intervals ahead of the clock.
+ */
+final class TokenBucket {
+
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(RateLimitPolicy policy, long now) {
+        this.interval = policy.emissionIntervalNanos();
+        this.tolerance = interval * policy.burst();
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a permit if one is available.
+     *
+     * @return 0 when the request is allowed, otherwise the nanoseconds until one will be
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.fullstack.debt_manager.security;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature has already been checked.
+ */
+public record VerifiedToken(String username, Date issuedAt, Date expiration) {
+
+    public boolean isExpired() {
+        return expiration.getTime() <= System.currentTimeMillis();
+    }
+}
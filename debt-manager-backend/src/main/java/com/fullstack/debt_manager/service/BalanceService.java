@@ -0,0 +1,103 @@
+package com.fullstack.debt_manager.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fullstack.debt_manager.dto.BalanceDto;
+import com.fullstack.debt_manager.entity.Balance;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.repository.BalanceRepository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class BalanceService {
+    private final BalanceRepository balanceRepository;
+    private final UserService userService;
+
+    /**
+     * Moves the ledger from the {@code removed} contributions to the {@code added} ones inside
+     * the caller's transaction. Deltas are netted per pair and written in pair order so two
+     * transactions touching the same pairs always lock rows in the same sequence.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Collection<LedgerEntry> removed, Collection<LedgerEntry> added) {
+        Map<Pair, BigDecimal> deltas = new TreeMap<>();
+        removed.forEach(entry -> accumulate(deltas, entry, true));
+        added.forEach(entry -> accumulate(deltas, entry, false));
+        
+        deltas.forEach((pair, delta) -> {
+            if (delta.signum() != 0) {
+                balanceRepository.applyDelta(pair.lowId(), pair.highId(), delta);
+            }
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(LedgerEntry removed, LedgerEntry added) {
+        apply(removed == null ? Collections.emptyList() : List.of(removed),
+              added == null ? Collections.emptyList() : List.of(added));
+    }
+    
+    public List<BalanceDto> getBalances(User user) {
+        return balanceRepository.findOpenBalancesForUser(user)
+                .stream()
+                .map(balance -> convertToDto(balance, user.getId()))
+                .collect(Collectors.toList());
+    }
+    
+    public BalanceDto getBalance(User user, Long counterpartyId) {
+        User counterparty = userService.findById(counterpartyId);
+        if (user.getId().equals(counterparty.getId())) {
+            throw new RuntimeException("Cannot get balance with yourself");
+        }
+        
+        Pair pair = Pair.of(user.getId(), counterparty.getId());
+        return balanceRepository.findByPair(pair.lowId(), pair.highId())
+                .map(balance -> new BalanceDto(
+                        userService.convertToDto(counterparty),
+                        perspectiveOf(balance, user.getId()),
+                        balance.getUpdatedAt()))
+                .orElseGet(() -> new BalanceDto(userService.convertToDto(counterparty), BigDecimal.ZERO, null));
+    }
+    
+    private BalanceDto convertToDto(Balance balance, Long userId) {
+        User counterparty = balance.getUserLow().getId().equals(userId) ? balance.getUserHigh() : balance.getUserLow();
+        return new BalanceDto(
+                userService.convertToDto(counterparty),
+                perspectiveOf(balance, userId),
+                balance.getUpdatedAt()
+        );
+    }
+    
+    private static BigDecimal perspectiveOf(Balance balance, Long userId) {
+        return balance.getUserLow().getId().equals(userId) ? balance.getAmount() : balance.getAmount().negate();
+    }
+    
+    private static void accumulate(Map<Pair, BigDecimal> deltas, LedgerEntry entry, boolean reverse) {
+        Pair pair = Pair.of(entry.creditorId(), entry.debtorId());
+        BigDecimal delta = entry.creditorId().equals(pair.lowId()) ? entry.amount() : entry.amount().negate();
+        deltas.merge(pair, reverse ? delta.negate() : delta, BigDecimal::add);
+    }
+    
+    private record Pair(Long lowId, Long highId) implements Comparable<Pair> {
+        static Pair of(Long a, Long b) {
+            return a < b ? new Pair(a, b) : new Pair(b, a);
+        }
+        
+        @Override
+        public int compareTo(Pair other) {
+            int byLow = lowId.compareTo(other.lowId);
+            return byLow != 0 ? byLow : highId.compareTo(other.highId);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.fullstack.debt_manager.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fullstack.debt_manager.dto.ChangePage;
+import com.fullstack.debt_manager.dto.ExpenseDto;
+import com.fullstack.debt_manager.dto.SyncCursor;
+import com.fullstack.debt_manager.dto.UserDto;
+import com.fullstack.debt_manager.entity.Customer;
+import com.fullstack.debt_manager.entity.Tombstone;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.CustomerChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+import com.fullstack.debt_manager.repository.CustomerRepository;
+import com.fullstack.debt_manager.repository.ExpenseRepository;
+import com.fullstack.debt_manager.repository.ExpenseRow;
+import com.fullstack.debt_manager.repository.TombstoneRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for offline clients: rows created or updated after the client's cursor plus
+ * tombstones for rows that left their view. Tombstones are written in the same transaction
+ * as the delete.
+ *
+ * <p>Rows are ordered by timestamps taken before commit, so a slow transaction can commit a
+ * row behind a cursor that was already handed out. Cursors therefore never move past
+ * {@code now - settle-window}; rows newer than that are sent again on the next call, which
+ * clients absorb because applying a page is idempotent.
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+
+    private final ExpenseRepository expenseRepository;
+    private final CustomerRepository customerRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final ExpenseService expenseService;
+    private final UserService userService;
+    private final Duration settleWindow;
+    private final Duration tombstoneRetention;
+
+    public ChangeFeedService(ExpenseRepository expenseRepository,
+                             CustomerRepository customerRepository,
+                             TombstoneRepository tombstoneRepository,
+                             ExpenseService expenseService,
+                             UserService userService,
+                             @Value("${sync.settle-window:5s}") Duration settleWindow,
+                             @Value("${sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.expenseRepository = expenseRepository;
+        this.customerRepository = customerRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.expenseService = expenseService;
+        this.userService = userService;
+        this.settleWindow = settleWindow;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    public ChangePage<ExpenseDto> getExpenseChanges(User user, String cursor, int limit) {
+        SyncCursor since = start(cursor);
+        PageRequest page = pageRequest(limit);
+        List<ExpenseRow> changed = expenseRepository.findChangedSince(
+                user, since.getChangedAt(), since.getChangedId(), page);
+        List<Tombstone> removed = tombstoneRepository.findSince(
+                user.getId(), Tombstone.EntityType.EXPENSE, since.getRemovedAt(), since.getRemovedId(), page);
+        return assemble(since, page.getPageSize() - 1, changed, removed,
+                row -> row.getExpense().getUpdatedAt(), row -> row.getExpense().getId(),
+                row -> row.getExpense().getId(), expenseService::convertToDto);
+    }
+
+    public ChangePage<UserDto> getCustomerChanges(User user, String cursor, int limit) {
+        SyncCursor since = start(cursor);
+        PageRequest page = pageRequest(limit);
+        List<Customer> added = customerRepository.findAddedSince(
+                user, since.getChangedAt(), since.getChangedId(), page);
+        List<Tombstone> removed = tombstoneRepository.findSince(
+                user.getId(), Tombstone.EntityType.CUSTOMER, since.getRemovedAt(), since.getRemovedId(), page);
+        return assemble(since, page.getPageSize() - 1, added, removed,
+                Customer::getCreatedAt, Customer::getId, customer -> customer.getCustomerUser().getId(),
+                customer -> userService.convertToDto(customer.getCustomerUser()));
+    }
+
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (event.type() == ExpenseChangedEvent.ChangeType.DELETED) {
+            tombstoneRepository.saveAll(List.of(
+                    new Tombstone(Tombstone.EntityType.EXPENSE, event.expenseId(), event.creatorId()),
+                    new Tombstone(Tombstone.EntityType.EXPENSE, event.expenseId(), event.debtorId())));
+        } else if (event.previousDebtorId() != null) {
+            tombstoneRepository.save(
+                    new Tombstone(Tombstone.EntityType.EXPENSE, event.expenseId(), event.previousDebtorId()));
+        }
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.type() == CustomerChangedEvent.ChangeType.REMOVED) {
+            tombstoneRepository.save(
+                    new Tombstone(Tombstone.EntityType.CUSTOMER, event.customerUserId(), event.userId()));
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${sync.tombstone-purge-interval:1h}", initialDelayString = "${sync.tombstone-purge-interval:1h}")
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("Purged {} tombstones older than {}", purged, tombstoneRetention);
+        }
+    }
+
+    // A fresh client has nothing to delete, so it reads tombstones only from now on. A cursor
+    // older than the retention may have missed purged tombstones and must start over.
+    private SyncCursor start(String cursor) {
+        SyncCursor since = SyncCursor.decode(cursor);
+        LocalDateTime settled = LocalDateTime.now().minus(settleWindow);
+        if (since == SyncCursor.START) {
+            return new SyncCursor(since.getChangedAt(), since.getChangedId(), settled, 0L);
+        }
+        if (since.getRemovedAt().isBefore(LocalDateTime.now().minus(tombstoneRetention))) {
+            throw new RuntimeException("Sync cursor expired, fetch the full list again");
+        }
+        return since;
+    }
+
+    // One extra row on each side shows whether that side has more
+    private static PageRequest pageRequest(int limit) {
+        int pageSize = Math.max(1, Math.min(limit, ExpenseService.MAX_PAGE_SIZE));
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    private <E, D> ChangePage<D> assemble(SyncCursor since, int pageSize,
+                                          List<E> rows, List<Tombstone> tombstones,
+                                          Function<E, LocalDateTime> timestamp, Function<E, Long> rowId,
+                                          Function<E, Long> key, Function<E, D> converter) {
+        boolean rowsCut = rows.size() > pageSize;
+        boolean tombstonesCut = tombstones.size() > pageSize;
+        rows = rows.subList(0, Math.min(rows.size(), pageSize));
+        tombstones = tombstones.subList(0, Math.min(tombstones.size(), pageSize));
+
+        // When either side was cut short, hold the other side back to the same point in time,
+        // so a delete is never delivered a page ahead of the changes that preceded it
+        LocalDateTime horizon = null;
+        if (rowsCut) {
+            horizon = timestamp.apply(rows.get(rows.size() - 1));
+        }
+        if (tombstonesCut) {
+            LocalDateTime lastRemoved = tombstones.get(tombstones.size() - 1).getDeletedAt();
+            horizon = horizon == null || lastRemoved.isBefore(horizon) ? lastRemoved : horizon;
+        }
+        if (horizon != null) {
+            LocalDateTime limit = horizon;
+            rows = rows.stream().filter(row -> !timestamp.apply(row).isAfter(limit)).toList();
+            tombstones = tombstones.stream().filter(t -> !t.getDeletedAt().isAfter(limit)).toList();
+        }
+
+        Position settled = new Position(LocalDateTime.now().minus(settleWindow), 0L);
+        Position changedFrom = new Position(since.getChangedAt(), since.getChangedId());
+        Position removedFrom = new Position(since.getRemovedAt(), since.getRemovedId());
+        Position changedTo = advance(changedFrom, rows.isEmpty() ? null : new Position(
+                timestamp.apply(rows.get(rows.size() - 1)), rowId.apply(rows.get(rows.size() - 1))),
+                rowsCut, horizon, settled);
+        Position removedTo = advance(removedFrom, tombstones.isEmpty() ? null : new Position(
+                tombstones.get(tombstones.size() - 1).getDeletedAt(), tombstones.get(tombstones.size() - 1).getId()),
+                tombstonesCut, horizon, settled);
+
+        // A row that is still visible outranks any tombstone for it: it came back after the delete
+        Set<Long> present = rows.stream().map(key).collect(Collectors.toSet());
+        List<Long> removed = tombstones.stream()
+                .map(Tombstone::getEntityId)
+                .filter(id -> !present.contains(id))
+                .distinct()
+                .toList();
+        List<D> items = rows.stream().map(converter).collect(Collectors.toList());
+        SyncCursor next = new SyncCursor(changedTo.at(), changedTo.id(), removedTo.at(), removedTo.id());
+        return new ChangePage<>(items, removed, next.encode(), horizon != null);
+    }
+
+    private static Position advance(Position from, Position last, boolean cut, LocalDateTime horizon, Position settled) {
+        Position to;
+        if (horizon == null) {
+            // Everything up to now was read
+            to = settled;
+        } else if (!cut) {
+            // This side was read in full up to the horizon
+            to = min(new Position(horizon, Long.MAX_VALUE), settled);
+        } else {
+            to = last != null ? last : from;
+        }
+        return max(from, to);
+    }
+
+    private static Position min(Position a, Position b) {
+        return Position.ORDER.compare(a, b) <= 0 ? a : b;
+    }
+
+    private static Position max(Position a, Position b) {
+        return Position.ORDER.compare(a, b) >= 0 ? a : b;
+    }
+
+    private record Position(LocalDateTime at, Long id) {
+        static final Comparator<Position> ORDER =
+                Comparator.comparing(Position::at).thenComparing(Position::id);
+    }
+}
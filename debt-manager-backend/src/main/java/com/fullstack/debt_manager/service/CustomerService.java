@@ -1,12 +1,14 @@
 package com.fullstack.debt_manager.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.fullstack.debt_manager.dto.UserDto;
 import com.fullstack.debt_manager.entity.Customer;
 import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.CustomerChangedEvent;
 import com.fullstack.debt_manager.repository.CustomerRepository;
 
 import java.util.List;
@@ -17,6 +19,7 @@ import java.util.stream.Collectors;
 public class CustomerService {
     private final CustomerRepository customerRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
 
     
     @Transactional
@@ -35,12 +38,12 @@ public class CustomerService {
         customer.setUser(user);
         customer.setCustomerUser(customerUser);
         customerRepository.save(customer);
-        
-
+        eventPublisher.publishEvent(CustomerChangedEvent.added(user.getId(), customerUser.getId()));
         
         return userService.convertToDto(customerUser);
     }
     
+    @Transactional(readOnly = true)
     public List<UserDto> getCustomers(User user) {
         return customerRepository.findByUser(user)
                 .stream()
@@ -55,5 +58,6 @@ public class CustomerService {
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         
         customerRepository.delete(customer);
+        eventPublisher.publishEvent(CustomerChangedEvent.removed(user.getId(), customerUser.getId()));
     }
 }
@@ -0,0 +1,127 @@
+package com.fullstack.debt_manager.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.CustomerChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Per-user data versions backing the ETags of the expense and customer list endpoints. A
+ * version is a counter in {@code user_versions}, bumped in the transaction of every change that
+ * affects the user, so it moves exactly when the change commits and every instance sees it.
+ * Checking an unchanged list costs one primary-key lookup.
+ *
+ * <p>A transaction bumps each affected user once, just before it commits and in id order, so
+ * a bulk import touches a couple of rows and concurrent writers cannot deadlock on them. Reads
+ * take the version first and query second: an old version paired with newer rows costs a
+ * refetch, never a stale 304.
+ *
+ * <p>The version is read outside any transaction, so from the primary, while the list itself is
+ * a read-only query that may go to a replica. {@link #readAtLeast} keeps the two together: the
+ * query runs on the replica only once that has caught up with the version, and on the primary
+ * otherwise, so a lagging replica can never put a stale page under a new tag.
+ */
+@Service
+public class DataVersionService {
+
+    private static final String BUMP_SQL =
+            "INSERT INTO user_versions (user_id, version) VALUES (?, 1) ON DUPLICATE KEY UPDATE version = version + 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate primary;
+
+    public DataVersionService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.primary = new TransactionTemplate(transactionManager);
+    }
+
+    /** The version of everything {@code user} can list; read it before running the query. */
+    public Version current(User user) {
+        return new Version(user.getId(), getVersion(user.getId()));
+    }
+
+    /** Runs {@code query} against data at least as new as {@code version}. */
+    public <T> T readAtLeast(Version version, Supplier<T> query) {
+        Optional<T> replicated = readOnly.execute(status -> getVersion(version.userId()) >= version.value()
+                ? Optional.of(query.get())
+                : Optional.empty());
+        return replicated.orElseGet(() -> primary.execute(status -> query.get()));
+    }
+
+    public long getVersion(Long userId) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM user_versions WHERE user_id = ?", Long.class, userId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    public void bump(Collection<Long> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(new TreeSet<>(userIds));
+            return;
+        }
+        PendingBumps pending = (PendingBumps) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingBumps();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.userIds.addAll(userIds);
+    }
+
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        bump(event.affectedUserIds());
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        bump(List.of(event.userId()));
+    }
+
+    private void write(SortedSet<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(BUMP_SQL, userIds, userIds.size(),
+                (statement, userId) -> statement.setLong(1, userId));
+    }
+
+    public record Version(Long userId, long value) {
+        /** Strong ETag shared by every list the user can fetch. */
+        public String etag() {
+            return "\"" + userId + "-" + value + "\"";
+        }
+    }
+
+    // The users a transaction has changed, bound to it until it completes
+    private final class PendingBumps implements TransactionSynchronization {
+        private final SortedSet<Long> userIds = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write(userIds);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DataVersionService.this);
+        }
+    }
+}
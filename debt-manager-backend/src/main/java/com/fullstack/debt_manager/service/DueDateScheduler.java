@@ -0,0 +1,251 @@
+package com.fullstack.debt_manager.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseDueDateChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseReminderEvent;
+import com.fullstack.debt_manager.repository.DueExpense;
+import com.fullstack.debt_manager.repository.ExpenseRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sends due-soon reminders and moves pending expenses past their due date to OVERDUE.
+ *
+ * <p>Deadlines up to {@code horizon} ahead live in a {@link TimingWheel}, so ticks never touch
+ * the database unless something is due. The next window is loaded with a keyset seek over
+ * {@code idx_expenses_status_due} once half of the current one has elapsed; the first load
+ * starts from the beginning of time and so catches up on everything that came due while the
+ * application was down. Expenses saved with a due date inside an already-loaded window are
+ * added to the wheel by their {@link ExpenseDueDateChangedEvent}.
+ *
+ * <p>Each batch re-reads its rows under a row lock before acting, so stale wheel entries and
+ * other instances running the same schedule are harmless: an expense is only transitioned
+ * while still PENDING and past due, and reminded while its reminder is unsent.
+ */
+@Slf4j
+@Service
+public class DueDateScheduler {
+
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ExpenseRepository expenseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Duration horizon;
+    private final Duration reminderLead;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final TimingWheel<Deadline> wheel;
+    private final Counter reminded;
+    private final Counter overdue;
+
+    // Due dates up to which each kind of deadline is in the wheel. Raised before a window is
+    // read, so an expense committed during the read is scheduled by its event if it is missed.
+    private volatile LocalDateTime overdueLoadedUntil = START;
+    private volatile LocalDateTime remindersLoadedUntil;
+
+    @Autowired
+    public DueDateScheduler(ExpenseRepository expenseRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${due-dates.tick:1s}") Duration tick,
+                            @Value("${due-dates.horizon:10m}") Duration horizon,
+                            @Value("${due-dates.reminder-lead:1d}") Duration reminderLead,
+                            @Value("${due-dates.batch-size:200}") int batchSize) {
+        this(expenseRepository, eventPublisher, transactionManager, meterRegistry, Clock.systemDefaultZone(),
+                tick, horizon, reminderLead, batchSize);
+    }
+
+    DueDateScheduler(ExpenseRepository expenseRepository, ApplicationEventPublisher eventPublisher,
+                     PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, Clock clock,
+                     Duration tick, Duration horizon, Duration reminderLead, int batchSize) {
+        this.expenseRepository = expenseRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.horizon = horizon;
+        this.reminderLead = reminderLead;
+        this.batchSize = batchSize;
+        this.retryDelay = horizon.dividedBy(10);
+        this.wheel = new TimingWheel<>(tick, horizon, clock.millis());
+        // Reminders that would have gone out while the application was down are sent on the
+        // first load for expenses not yet due; the ones already past due are simply overdue
+        this.remindersLoadedUntil = now();
+        this.reminded = meterRegistry.counter("expenses.deadlines", "action", "reminded");
+        this.overdue = meterRegistry.counter("expenses.deadlines", "action", "overdue");
+        Gauge.builder("expenses.deadlines.scheduled", wheel, TimingWheel::size)
+                .description("Deadlines held in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${due-dates.tick:1s}")
+    public void tick() {
+        LocalDateTime now = now();
+        if (!overdueLoadedUntil.isAfter(now.plus(horizon.dividedBy(2)))) {
+            loadWindow(now.plus(horizon));
+        }
+        fire(wheel.advance(clock.millis()));
+    }
+
+    @TransactionalEventListener
+    public void onDueDateChanged(ExpenseDueDateChangedEvent event) {
+        LocalDateTime dueDate = event.dueDate();
+        if (!dueDate.isAfter(overdueLoadedUntil)) {
+            schedule(new Deadline(event.expenseId(), Deadline.Kind.OVERDUE), dueDate);
+        }
+        if (!dueDate.isAfter(remindersLoadedUntil) && dueDate.isAfter(now())) {
+            schedule(new Deadline(event.expenseId(), Deadline.Kind.REMIND), dueDate.minus(reminderLead));
+        }
+    }
+
+    int getScheduledCount() {
+        return wheel.size();
+    }
+
+    private void loadWindow(LocalDateTime until) {
+        LocalDateTime overdueFrom = overdueLoadedUntil;
+        LocalDateTime remindersFrom = remindersLoadedUntil;
+        LocalDateTime remindersUntil = until.plus(reminderLead);
+        overdueLoadedUntil = until;
+        remindersLoadedUntil = remindersUntil;
+
+        int overdueLoaded = seek(overdueFrom, until, Deadline.Kind.OVERDUE, Duration.ZERO);
+        int remindersLoaded = seek(remindersFrom, remindersUntil, Deadline.Kind.REMIND, reminderLead);
+        log.debug("Loaded {} overdue and {} reminder deadlines up to {}", overdueLoaded, remindersLoaded, until);
+    }
+
+    // Deadlines already due are acted on a batch at a time as the seek goes, so a large backlog
+    // after downtime never sits in memory at once
+    private int seek(LocalDateTime from, LocalDateTime until, Deadline.Kind kind, Duration lead) {
+        LocalDateTime dueDate = from;
+        Long id = 0L;
+        int loaded = 0;
+        List<DueExpense> page;
+        do {
+            page = expenseRepository.findDueSeek(ExpenseStatus.PENDING, dueDate, id, until,
+                    PageRequest.ofSize(batchSize));
+            List<Deadline> due = new ArrayList<>();
+            long nowMillis = clock.millis();
+            for (DueExpense expense : page) {
+                Deadline deadline = new Deadline(expense.getId(), kind);
+                LocalDateTime at = expense.getDueDate().minus(lead);
+                if (toMillis(at) <= nowMillis) {
+                    due.add(deadline);
+                } else {
+                    schedule(deadline, at);
+                }
+            }
+            fire(due);
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                DueExpense last = page.get(page.size() - 1);
+                dueDate = last.getDueDate();
+                id = last.getId();
+            }
+        } while (page.size() == batchSize);
+        return loaded;
+    }
+
+    private void schedule(Deadline deadline, LocalDateTime at) {
+        if (!wheel.schedule(deadline, toMillis(at))) {
+            // Only possible for a window loaded ahead of a stalled tick; the next load finds it
+            log.debug("Deadline {} at {} is beyond the wheel", deadline, at);
+        }
+    }
+
+    private void fire(List<Deadline> deadlines) {
+        List<Deadline> overdueDeadlines = new ArrayList<>();
+        List<Deadline> reminderDeadlines = new ArrayList<>();
+        for (Deadline deadline : deadlines) {
+            (deadline.kind() == Deadline.Kind.OVERDUE ? overdueDeadlines : reminderDeadlines).add(deadline);
+        }
+        inBatches(overdueDeadlines, this::markOverdue);
+        inBatches(reminderDeadlines, this::sendReminders);
+    }
+
+    private void inBatches(List<Deadline> deadlines, Consumer<List<Long>> action) {
+        for (int from = 0; from < deadlines.size(); from += batchSize) {
+            List<Deadline> batch = deadlines.subList(from, Math.min(from + batchSize, deadlines.size()));
+            try {
+                action.accept(batch.stream().map(Deadline::expenseId).toList());
+            } catch (RuntimeException e) {
+                LocalDateTime retryAt = now().plus(retryDelay);
+                log.warn("Could not process {} due-date deadlines, retrying at {}", batch.size(), retryAt, e);
+                batch.forEach(deadline -> schedule(deadline, retryAt));
+            }
+        }
+    }
+
+    private void markOverdue(List<Long> ids) {
+        int marked = transactionTemplate.execute(status -> {
+            List<Expense> expenses = expenseRepository.findDueForUpdate(ids, ExpenseStatus.PENDING, now());
+            for (Expense expense : expenses) {
+                // Still outstanding, so the ledger does not move
+                expense.setStatus(ExpenseStatus.OVERDUE);
+                eventPublisher.publishEvent(ExpenseChangedEvent.updated(expense.getId(),
+                        expense.getCreator().getId(), expense.getDebtor().getId(), expense.getDebtor().getId()));
+            }
+            return expenses.size();
+        });
+        overdue.increment(marked);
+    }
+
+    private void sendReminders(List<Long> ids) {
+        LocalDateTime now = now();
+        int sent = transactionTemplate.execute(status -> {
+            List<Expense> expenses = expenseRepository.findDueForUpdate(ids, ExpenseStatus.PENDING, now.plus(reminderLead))
+                    .stream()
+                    .filter(expense -> expense.getRemindedAt() == null && expense.getDueDate().isAfter(now))
+                    .toList();
+            if (expenses.isEmpty()) {
+                return 0;
+            }
+            expenseRepository.markReminded(expenses.stream().map(Expense::getId).toList(), now);
+            for (Expense expense : expenses) {
+                eventPublisher.publishEvent(new ExpenseReminderEvent(expense.getId(),
+                        expense.getCreator().getId(), expense.getDebtor().getId(), expense.getDueDate()));
+            }
+            return expenses.size();
+        });
+        reminded.increment(sent);
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock).truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private long toMillis(LocalDateTime at) {
+        return at.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private record Deadline(Long expenseId, Kind kind) {
+        enum Kind {
+            REMIND,
+            OVERDUE
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.fullstack.debt_manager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fullstack.debt_manager.event.CustomerChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseReminderEvent;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out for the {@code /events} stream. Each user with a connection or recent
+ * events has a channel holding their subscribers and the last few events for resuming with
+ * {@code Last-Event-ID}. Publishing only queues the event on each subscriber; a small sender
+ * pool does the socket writes, so an idle connection costs an emitter and an empty queue and
+ * a slow one costs at most {@code buffer-size} queued events before it is dropped. Dropped or
+ * timed-out clients reconnect and resume, or are told to resync through the change feeds
+ * when the events they missed are no longer held.
+ *
+ * <p>Events are published as the transaction that caused them commits, so they reach the
+ * subscribers connected to the instance that made the change. With several instances a client
+ * connected elsewhere is not pushed to; it catches up through the change feeds when it next
+ * reconnects or refreshes.
+ */
+@Slf4j
+@Service
+public class EventStreamHub {
+
+    private static final long NO_RESUME = -1;
+    private static final long RESUME_UNKNOWN = Long.MIN_VALUE;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connected = new AtomicInteger();
+
+    private final Executor senders;
+    private final ObjectMapper objectMapper;
+    private final Counter dropped;
+    private final long timeoutMillis;
+    private final long retryMillis;
+    private final int bufferSize;
+    private final int replaySize;
+    private final long replayTtlNanos;
+
+    @Autowired
+    public EventStreamHub(ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${events.stream.sender-threads:2}") int senderThreads,
+                          @Value("${events.stream.timeout:30m}") Duration timeout,
+                          @Value("${events.stream.retry:5s}") Duration retry,
+                          @Value("${events.stream.buffer-size:32}") int bufferSize,
+                          @Value("${events.stream.replay-size:100}") int replaySize,
+                          @Value("${events.stream.replay-ttl:10m}") Duration replayTtl) {
+        this(Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender");
+            thread.setDaemon(true);
+            return thread;
+        }), objectMapper, meterRegistry, timeout, retry, bufferSize, replaySize, replayTtl);
+    }
+
+    EventStreamHub(Executor senders, ObjectMapper objectMapper, MeterRegistry meterRegistry, Duration timeout,
+                   Duration retry, int bufferSize, int replaySize, Duration replayTtl) {
+        this.senders = senders;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.retryMillis = retry.toMillis();
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.replayTtlNanos = replayTtl.toNanos();
+        this.dropped = Counter.builder("events.stream.dropped")
+                .description("Subscribers disconnected because they fell too far behind")
+                .register(meterRegistry);
+        Gauge.builder("events.stream.subscribers", connected, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for {@code userId}. With a {@code lastEventId} from an earlier stream the
+     * events the client missed are sent first, or a {@code resync} event when they are gone.
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.offer(new Message(SseEmitter.event().comment("connected").reconnectTime(retryMillis)));
+        long resumeAfter = parseSequence(lastEventId);
+        connected.incrementAndGet();
+        channels.compute(userId, (id, channel) -> {
+            channel = channel != null ? channel : new Channel(sequence.get());
+            channel.subscribe(subscriber, resumeAfter);
+            return channel;
+        });
+        return emitter;
+    }
+
+    // After commit rather than through the outbox, whose rows go to whichever instance claims
+    // them: this way the subscribers of the instance that made the change are always told
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        publish(event.affectedUserIds(), "expense", new Change(event.type().name(), event.expenseId()));
+    }
+
+    // Adding a customer also tells the added user, who may want to show who listed them
+    @TransactionalEventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        Collection<Long> userIds = event.type() == CustomerChangedEvent.ChangeType.ADDED
+                ? List.of(event.userId(), event.customerUserId())
+                : List.of(event.userId());
+        publish(userIds, "customer", new Change(event.type().name(), event.customerUserId()));
+    }
+
+    // Only the debtor is reminded; the creator learns of the debt once it turns overdue
+    @TransactionalEventListener
+    public void onExpenseReminder(ExpenseReminderEvent event) {
+        publish(List.of(event.debtorId()), "reminder", new Change("DUE_SOON", event.expenseId()));
+    }
+
+    public void publish(Collection<Long> userIds, String name, Object payload) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + name + " event", e);
+        }
+        for (Long userId : userIds) {
+            // Numbered under the channel's lock so each user's events are held in id order
+            channels.compute(userId, (id, channel) -> {
+                long seq = sequence.incrementAndGet();
+                channel = channel != null ? channel : new Channel(seq - 1);
+                channel.publish(new Message(seq, SseEmitter.event().id(epoch + "-" + seq).name(name).data(data)));
+                return channel;
+            });
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies, finds dead ones and forgets channels with
+     * no subscribers whose events are too old to resume from.
+     */
+    @Scheduled(fixedRateString = "${events.stream.heartbeat:15s}", initialDelayString = "${events.stream.heartbeat:15s}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        Message heartbeat = new Message(SseEmitter.event().comment("ping"));
+        for (Long userId : channels.keySet()) {
+            channels.computeIfPresent(userId, (id, channel) -> channel.heartbeat(heartbeat, now) ? channel : null);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return connected.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(Channel::closeAll);
+        if (senders instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private long parseSequence(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return NO_RESUME;
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            // From before a restart: the events since then are unknown
+            return RESUME_UNKNOWN;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return RESUME_UNKNOWN;
+        }
+    }
+
+    /** Small JSON body of every event; clients fetch the details through the change feeds. */
+    record Change(String change, Long id) {
+    }
+
+    private record Message(long sequence, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        Message(SseEmitter.SseEventBuilder event) {
+            this(0, event.build());
+        }
+
+        Message(long sequence, SseEmitter.SseEventBuilder event) {
+            this(sequence, event.build());
+        }
+    }
+
+    // Guarded by the map's compute lock for its key, so subscribing, publishing and the
+    // heartbeat sweep never interleave for one user and replayed events stay in order.
+    // Closed subscribers are pruned here rather than by the subscriber, which may be closing
+    // from inside one of these calls.
+    private final class Channel {
+        private final Set<Subscriber> subscribers = new HashSet<>();
+        private final ArrayDeque<Message> recent = new ArrayDeque<>();
+        private long floor;
+        private long lastActivity = System.nanoTime();
+
+        private Channel(long floor) {
+            this.floor = floor;
+        }
+
+        private void subscribe(Subscriber subscriber, long resumeAfter) {
+            subscribers.removeIf(Subscriber::isClosed);
+            subscribers.add(subscriber);
+            lastActivity = System.nanoTime();
+            if (resumeAfter == NO_RESUME) {
+                return;
+            }
+            if (resumeAfter < floor) {
+                subscriber.offer(new Message(SseEmitter.event().name("resync").data("{}")));
+                return;
+            }
+            for (Message message : recent) {
+                if (message.sequence() > resumeAfter) {
+                    subscriber.offer(message);
+                }
+            }
+        }
+
+        private void publish(Message message) {
+            if (recent.size() == replaySize) {
+                floor = recent.removeFirst().sequence();
+            }
+            recent.addLast(message);
+            lastActivity = System.nanoTime();
+            subscribers.removeIf(Subscriber::isClosed);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(message);
+            }
+        }
+
+        private boolean heartbeat(Message heartbeat, long now) {
+            subscribers.removeIf(Subscriber::isClosed);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(heartbeat);
+            }
+            return !subscribers.isEmpty() || now - lastActivity < replayTtlNanos;
+        }
+
+        private void closeAll() {
+            new ArrayList<>(subscribers).forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Message> pending = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void offer(Message message) {
+            if (closed.get()) {
+                return;
+            }
+            if (!pending.offer(message)) {
+                dropped.increment();
+                log.debug("Dropping event stream of user {}: {} events queued", userId, bufferSize);
+                close();
+                emitter.complete();
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Message message;
+                while (!closed.get() && (message = pending.poll()) != null) {
+                    emitter.send(message.frame());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the container completes the emitter
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get() && !pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private boolean isClosed() {
+            return closed.get();
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                pending.clear();
+                connected.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.fullstack.debt_manager.service;
+
+import com.fullstack.debt_manager.dto.ExpenseRequest;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads expense rows from CSV with a header line. Recognised columns are {@code description},
+ * {@code amount}, {@code debtor_id}, {@code due_date}, {@code notes} and {@code status}, in any
+ * order. Quoted fields may contain commas, doubled quotes and line breaks.
+ */
+final class ExpenseCsvParser {
+
+    private final Reader reader;
+    private int pending = -2;
+
+    private ExpenseCsvParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Parses every data row. Rows that cannot be converted are returned as {@code null} with
+     * the reason stored in {@code errors} under the row's 0-based index.
+     */
+    static List<ExpenseRequest> parse(Reader reader, Map<Integer, String> errors) throws IOException {
+        ExpenseCsvParser parser = new ExpenseCsvParser(reader);
+        List<String> header = parser.readRecord();
+        if (header == null) {
+            return List.of();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        
+        List<ExpenseRequest> rows = new ArrayList<>();
+        List<String> record;
+        while ((record = parser.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            try {
+                rows.add(toRequest(record, columns));
+            } catch (RuntimeException e) {
+                errors.put(rows.size(), "Invalid value: " + e.getMessage());
+                rows.add(null);
+            }
+        }
+        return rows;
+    }
+
+    private static ExpenseRequest toRequest(List<String> record, Map<String, Integer> columns) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setDescription(column(record, columns, "description"));
+        String amount = column(record, columns, "amount");
+        request.setAmount(amount == null ? null : new BigDecimal(amount));
+        String debtorId = column(record, columns, "debtor_id");
+        request.setDebtorId(debtorId == null ? null : Long.valueOf(debtorId));
+        request.setDueDate(parseDateTime(column(record, columns, "due_date")));
+        request.setNotes(column(record, columns, "notes"));
+        String status = column(record, columns, "status");
+        request.setStatus(status == null ? null : ExpenseStatus.valueOf(status.toUpperCase(Locale.ROOT)));
+        return request;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = next();
+        if (c == -1) {
+            return null;
+        }
+        
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int following = next();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                int following = next();
+                if (following != '\n') {
+                    pending = following;
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = next();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int next() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,120 @@
+package com.fullstack.debt_manager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fullstack.debt_manager.dto.ExpenseDto;
+import com.fullstack.debt_manager.dto.ExportFormat;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.repository.ExpenseRepository;
+import com.fullstack.debt_manager.repository.ExpenseRow;
+
+import jakarta.persistence.EntityManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's expense history row by row from a forward-only database cursor. Each entity
+ * is detached once written, so memory use does not grow with the number of rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpenseExportService {
+    private static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 30);
+    private static final String CSV_HEADER = "id,description,amount,status,creator_id,creator_username," +
+            "debtor_id,debtor_username,created_at,updated_at,due_date,notes,paid,remaining\n";
+    
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseService expenseService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    
+    @Transactional(readOnly = true)
+    public void export(User user, LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == ExportFormat.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+        
+        try (Stream<ExpenseRow> rows = expenseRepository.streamForExport(
+                user,
+                (from != null ? from : EARLIEST).atStartOfDay(),
+                (to != null ? to : LATEST).plusDays(1).atStartOfDay())) {
+            Iterator<ExpenseRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ExpenseRow row = iterator.next();
+                rowWriter.write(expenseService.convertToDto(row));
+                entityManager.detach(row.getExpense());
+            }
+        }
+        writer.flush();
+    }
+    
+    private RowWriter csvWriter(Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        return expense -> {
+            writer.write(String.valueOf(expense.getId()));
+            writer.write(',');
+            writer.write(csv(expense.getDescription()));
+            writer.write(',');
+            writer.write(expense.getAmount().toPlainString());
+            writer.write(',');
+            writer.write(expense.getStatus().name());
+            writer.write(',');
+            writer.write(String.valueOf(expense.getCreator().getId()));
+            writer.write(',');
+            writer.write(csv(expense.getCreator().getUsername()));
+            writer.write(',');
+            writer.write(String.valueOf(expense.getDebtor().getId()));
+            writer.write(',');
+            writer.write(csv(expense.getDebtor().getUsername()));
+            writer.write(',');
+            writer.write(csv(expense.getCreatedAt()));
+            writer.write(',');
+            writer.write(csv(expense.getUpdatedAt()));
+            writer.write(',');
+            writer.write(csv(expense.getDueDate()));
+            writer.write(',');
+            writer.write(csv(expense.getNotes()));
+            writer.write(',');
+            writer.write(expense.getPaid().toPlainString());
+            writer.write(',');
+            writer.write(expense.getRemaining().toPlainString());
+            writer.write('\n');
+        };
+    }
+    
+    private RowWriter ndjsonWriter(Writer writer) {
+        ObjectWriter json = objectMapper.writer();
+        return expense -> {
+            writer.write(json.writeValueAsString(expense));
+            writer.write('\n');
+        };
+    }
+    
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+    
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ExpenseDto expense) throws IOException;
+    }
+}
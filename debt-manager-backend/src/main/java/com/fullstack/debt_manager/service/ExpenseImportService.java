@@ -0,0 +1,185 @@
+package com.fullstack.debt_manager.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fullstack.debt_manager.dto.BulkExpenseResult;
+import com.fullstack.debt_manager.dto.ExpenseRequest;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseDueDateChangedEvent;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports many expenses in one transaction. Rows are validated up front, debtors are resolved
+ * with a single query, and inserts bypass Hibernate so they can go out as JDBC batches; with
+ * IDENTITY ids Hibernate would otherwise insert row by row to learn each generated key.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExpenseImportService {
+    public static final int MAX_ROWS = 5000;
+    private static final int BATCH_SIZE = 500;
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO expenses (description, amount, creator_id, debtor_id, status, created_at, updated_at, due_date, notes, paid_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final UserService userService;
+    private final BalanceService balanceService;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Transactional
+    public List<BulkExpenseResult> importExpenses(List<ExpenseRequest> requests, User creator) {
+        return importRows(requests, Map.of(), creator);
+    }
+    
+    @Transactional
+    public List<BulkExpenseResult> importCsv(InputStream csv, User creator) throws IOException {
+        Map<Integer, String> parseErrors = new HashMap<>();
+        List<ExpenseRequest> requests = ExpenseCsvParser.parse(
+                new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)), parseErrors);
+        return importRows(requests, parseErrors, creator);
+    }
+    
+    private List<BulkExpenseResult> importRows(List<ExpenseRequest> requests, Map<Integer, String> parseErrors, User creator) {
+        if (requests.isEmpty()) {
+            throw new RuntimeException("No expenses to import");
+        }
+        if (requests.size() > MAX_ROWS) {
+            throw new RuntimeException("At most " + MAX_ROWS + " expenses can be imported at once");
+        }
+        
+        Set<Long> debtorIds = requests.stream()
+                .filter(request -> request != null && request.getDebtorId() != null)
+                .map(ExpenseRequest::getDebtorId)
+                .collect(Collectors.toSet());
+        Set<Long> existingDebtors = debtorIds.isEmpty() ? new HashSet<>() : userService.findExistingIds(debtorIds);
+        
+        BulkExpenseResult[] results = new BulkExpenseResult[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String error = parseErrors.containsKey(i)
+                    ? parseErrors.get(i)
+                    : validate(requests.get(i), creator, existingDebtors);
+            if (error != null) {
+                results[i] = BulkExpenseResult.failed(i + 1, error);
+            } else {
+                accepted.add(i);
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<LedgerEntry> ledgerEntries = new ArrayList<>();
+        for (int from = 0; from < accepted.size(); from += BATCH_SIZE) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + BATCH_SIZE, accepted.size()));
+            List<Long> ids = insertBatch(chunk, requests, creator, now);
+            for (int j = 0; j < chunk.size(); j++) {
+                int row = chunk.get(j);
+                ExpenseRequest request = requests.get(row);
+                results[row] = BulkExpenseResult.created(row + 1, ids.get(j));
+                eventPublisher.publishEvent(ExpenseChangedEvent.created(ids.get(j), creator.getId(), request.getDebtorId()));
+                if (statusOf(request).isOutstanding()) {
+                    ledgerEntries.add(new LedgerEntry(creator.getId(), request.getDebtorId(), request.getAmount()));
+                    if (request.getDueDate() != null) {
+                        eventPublisher.publishEvent(new ExpenseDueDateChangedEvent(ids.get(j), request.getDueDate()));
+                    }
+                }
+            }
+        }
+        balanceService.apply(List.of(), ledgerEntries);
+        
+        return List.of(results);
+    }
+    
+    private String validate(ExpenseRequest request, User creator, Set<Long> existingDebtors) {
+        if (request == null) {
+            return "Row is empty";
+        }
+        Set<ConstraintViolation<ExpenseRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (creator.getId().equals(request.getDebtorId())) {
+            return "Cannot create expense for yourself";
+        }
+        if (!existingDebtors.contains(request.getDebtorId())) {
+            return "User not found";
+        }
+        return null;
+    }
+    
+    private List<Long> insertBatch(List<Integer> rows, List<ExpenseRequest> requests, User creator, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int row : rows) {
+                    ExpenseRequest request = requests.get(row);
+                    statement.setString(1, request.getDescription());
+                    statement.setBigDecimal(2, request.getAmount());
+                    statement.setLong(3, creator.getId());
+                    statement.setLong(4, request.getDebtorId());
+                    statement.setString(5, statusOf(request).name());
+                    statement.setTimestamp(6, timestamp);
+                    statement.setTimestamp(7, timestamp);
+                    if (request.getDueDate() != null) {
+                        statement.setTimestamp(8, Timestamp.valueOf(request.getDueDate()));
+                    } else {
+                        statement.setNull(8, Types.TIMESTAMP);
+                    }
+                    statement.setString(9, request.getNotes());
+                    if (statusOf(request) == ExpenseStatus.PAID) {
+                        statement.setTimestamp(10, timestamp);
+                    } else {
+                        statement.setNull(10, Types.TIMESTAMP);
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                
+                List<Long> ids = new ArrayList<>(rows.size());
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+    
+    private static ExpenseStatus statusOf(ExpenseRequest request) {
+        return request.getStatus() != null ? request.getStatus() : ExpenseStatus.PENDING;
+    }
+}
@@ -1,23 +1,52 @@
 package com.fullstack.debt_manager.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fullstack.debt_manager.dto.CursorPage;
+import com.fullstack.debt_manager.dto.ExpenseCursor;
 import com.fullstack.debt_manager.dto.ExpenseDto;
 import com.fullstack.debt_manager.dto.ExpenseRequest;
+import com.fullstack.debt_manager.dto.StatusUpdateRequest;
+import com.fullstack.debt_manager.dto.StatusUpdateResult;
 import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
 import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseDueDateChangedEvent;
 import com.fullstack.debt_manager.repository.ExpenseRepository;
+import com.fullstack.debt_manager.repository.ExpenseRow;
+import com.fullstack.debt_manager.repository.PaymentRepository;
+import com.fullstack.debt_manager.repository.StatusChange;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ExpenseService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_STATUS_UPDATE = 1000;
+
     private final ExpenseRepository expenseRepository;
+    private final PaymentRepository paymentRepository;
     private final UserService userService;
+    private final BalanceService balanceService;
+    private final ApplicationEventPublisher eventPublisher;
 
     
     @Transactional
@@ -38,51 +67,62 @@ public class ExpenseService {
         expense.setStatus(request.getStatus() != null ? request.getStatus() : expense.getStatus());
         
         Expense saved = expenseRepository.save(expense);
+        balanceService.apply(null, LedgerEntry.of(saved));
+        eventPublisher.publishEvent(ExpenseChangedEvent.created(saved.getId(), creator.getId(), debtor.getId()));
+        publishDueDate(saved);
         
-
-        
-        return convertToDto(saved);
+        return convertToDto(saved, BigDecimal.ZERO);
     }
     
-    public List<ExpenseDto> getAllExpensesForUser(User user) {
-        return expenseRepository.findAllExpensesForUser(user)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ExpenseDto> getAllExpensesForUser(User user, String cursor, int limit) {
+        ExpenseCursor position = ExpenseCursor.decode(cursor);
+        return toPage(expenseRepository.findAllExpensesForUserSeek(
+                user, position.getCreatedAt(), position.getId(), pageRequest(limit)), limit);
     }
     
-    public List<ExpenseDto> getCreatedExpenses(User user) {
-        return expenseRepository.findByCreatorOrderByCreatedAtDesc(user)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ExpenseDto> getCreatedExpenses(User user, String cursor, int limit) {
+        ExpenseCursor position = ExpenseCursor.decode(cursor);
+        return toPage(expenseRepository.findCreatedSeek(
+                user, position.getCreatedAt(), position.getId(), pageRequest(limit)), limit);
     }
     
-    public List<ExpenseDto> getDebtorExpenses(User user) {
-        return expenseRepository.findByDebtorOrderByCreatedAtDesc(user)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ExpenseDto> getDebtorExpenses(User user, String cursor, int limit) {
+        ExpenseCursor position = ExpenseCursor.decode(cursor);
+        return toPage(expenseRepository.findDebtsSeek(
+                user, position.getCreatedAt(), position.getId(), pageRequest(limit)), limit);
     }
     
-    public List<ExpenseDto> getExpensesBetweenUsers(Long userId1, Long userId2) {
+    @Transactional(readOnly = true)
+    public CursorPage<ExpenseDto> getExpensesBetweenUsers(Long userId1, Long userId2, String cursor, int limit) {
         User user1 = userService.findById(userId1);
         User user2 = userService.findById(userId2);
-        return expenseRepository.findExpensesBetweenUsers(user1, user2)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        ExpenseCursor position = ExpenseCursor.decode(cursor);
+        return toPage(expenseRepository.findExpensesBetweenUsersSeek(
+                user1, user2, position.getCreatedAt(), position.getId(), pageRequest(limit)), limit);
     }
     
     @Transactional
     public ExpenseDto updateExpense(Long expenseId, ExpenseRequest request, User user) {
-        Expense expense = expenseRepository.findById(expenseId)
+        Expense expense = expenseRepository.findByIdForUpdate(expenseId)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
         
         if (!expense.getCreator().getId().equals(user.getId())) {
             throw new RuntimeException("You can only update expenses you created");
         }
         
+        BigDecimal paid = paymentRepository.paidTowards(expenseId);
+        if (request.getAmount().compareTo(paid) < 0) {
+            throw new RuntimeException("Amount cannot be less than the " + paid + " already paid");
+        }
+        
+        LedgerEntry previous = LedgerEntry.of(expense, paid);
+        Long previousDebtorId = expense.getDebtor().getId();
+        
+        boolean dueDateMoved = !Objects.equals(expense.getDueDate(), request.getDueDate());
+        
         expense.setDescription(request.getDescription());
         expense.setAmount(request.getAmount());
         expense.setDueDate(request.getDueDate());
@@ -90,6 +130,16 @@ public class ExpenseService {
         
         if (request.getStatus() != null) {
             expense.setStatus(request.getStatus());
+        } else if (dueDateMoved && expense.getStatus() == ExpenseStatus.OVERDUE) {
+            // Given more time: pending again until the scheduler finds the new date has passed
+            expense.setStatus(ExpenseStatus.PENDING);
+        }
+        if (dueDateMoved) {
+            expense.setRemindedAt(null);
+        }
+        if (expense.getStatus().isOutstanding() && paid.signum() > 0 && paid.compareTo(expense.getAmount()) >= 0) {
+            // Lowered to what has been paid already
+            expense.setStatus(ExpenseStatus.PAID);
         }
         
 
@@ -104,23 +154,116 @@ public class ExpenseService {
         }
         
         Expense saved = expenseRepository.save(expense);
-        return convertToDto(saved);
+        balanceService.apply(previous, LedgerEntry.of(saved, paid));
+        eventPublisher.publishEvent(ExpenseChangedEvent.updated(
+                saved.getId(), user.getId(), saved.getDebtor().getId(), previousDebtorId));
+        publishDueDate(saved);
+        return convertToDto(saved, paid);
     }
     
     @Transactional
     public void deleteExpense(Long expenseId, User user) {
-        Expense expense = expenseRepository.findById(expenseId)
+        Expense expense = expenseRepository.findByIdForUpdate(expenseId)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
         
         if (!expense.getCreator().getId().equals(user.getId())) {
             throw new RuntimeException("You can only delete expenses you created");
         }
         
+        // Payments are a record of money that changed hands and are never deleted
+        if (paymentRepository.existsByExpenseId(expenseId)) {
+            throw new RuntimeException("Expense has payments recorded against it, cancel it instead");
+        }
+        
         expenseRepository.delete(expense);
+        balanceService.apply(LedgerEntry.of(expense), null);
+        eventPublisher.publishEvent(ExpenseChangedEvent.deleted(
+                expense.getId(), user.getId(), expense.getDebtor().getId()));
+    }
+    
+    /**
+     * Moves the caller's selected expenses to the requested status with one UPDATE scoped by
+     * creator. The rows are read first under a lock only to net the ledger and publish change
+     * events; expenses already in the target status are left alone, as are fully paid ones
+     * that an outstanding status would reopen.
+     */
+    @Transactional
+    public StatusUpdateResult updateStatuses(StatusUpdateRequest request, User creator) {
+        ExpenseStatus target = request.getStatus();
+        if (target == ExpenseStatus.OVERDUE) {
+            throw new RuntimeException("OVERDUE is set automatically once the due date passes");
+        }
+        Set<ExpenseStatus> from = request.getFromStatus() != null
+                ? EnumSet.of(request.getFromStatus())
+                : EnumSet.allOf(ExpenseStatus.class);
+        from.remove(target);
+        if (from.isEmpty()) {
+            return new StatusUpdateResult(0, Map.of(), false, List.of());
+        }
+        
+        List<StatusChange> rows;
+        boolean hasMore = false;
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            rows = expenseRepository.findStatusChangesByIds(creator, request.getIds(), from);
+            if (request.getDebtorId() != null) {
+                rows = rows.stream().filter(row -> row.getDebtorId().equals(request.getDebtorId())).toList();
+            }
+        } else {
+            rows = expenseRepository.findStatusChangesByDebtor(
+                    creator, request.getDebtorId(), from, PageRequest.of(0, MAX_STATUS_UPDATE + 1));
+            hasMore = rows.size() > MAX_STATUS_UPDATE;
+            rows = rows.subList(0, Math.min(rows.size(), MAX_STATUS_UPDATE));
+        }
+        List<Long> settled = List.of();
+        if (target.isOutstanding()) {
+            // Same rule as updateExpense: an expense paid in full cannot be owed again
+            settled = rows.stream().filter(ExpenseService::isPaidInFull).map(StatusChange::getId).toList();
+            rows = rows.stream().filter(row -> !isPaidInFull(row)).toList();
+        }
+        if (rows.isEmpty()) {
+            return new StatusUpdateResult(0, Map.of(), hasMore, settled);
+        }
+        
+        List<Long> ids = rows.stream().map(StatusChange::getId).toList();
+        expenseRepository.updateStatus(creator, ids, target, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        
+        List<LedgerEntry> removed = new ArrayList<>();
+        List<LedgerEntry> added = new ArrayList<>();
+        Map<ExpenseStatus, Integer> previous = new EnumMap<>(ExpenseStatus.class);
+        for (StatusChange row : rows) {
+            LedgerEntry entry = LedgerEntry.remaining(creator.getId(), row.getDebtorId(), row.getAmount(), row.getPaid());
+            if (row.getStatus().isOutstanding() && entry != null) {
+                removed.add(entry);
+            }
+            if (target.isOutstanding()) {
+                if (entry != null) {
+                    added.add(entry);
+                }
+                if (row.getDueDate() != null) {
+                    eventPublisher.publishEvent(new ExpenseDueDateChangedEvent(row.getId(), row.getDueDate()));
+                }
+            }
+            previous.merge(row.getStatus(), 1, Integer::sum);
+            eventPublisher.publishEvent(ExpenseChangedEvent.updated(
+                    row.getId(), creator.getId(), row.getDebtorId(), row.getDebtorId()));
+        }
+        balanceService.apply(removed, added);
+        return new StatusUpdateResult(ids.size(), previous, hasMore, settled);
+    }
+    
+    private static boolean isPaidInFull(StatusChange row) {
+        return row.getPaid().signum() > 0 && row.getPaid().compareTo(row.getAmount()) >= 0;
+    }
+    
+    private void publishDueDate(Expense expense) {
+        if (expense.getDueDate() != null && expense.getStatus() != null && expense.getStatus().isOutstanding()) {
+            eventPublisher.publishEvent(new ExpenseDueDateChangedEvent(expense.getId(), expense.getDueDate()));
+        }
     }
     
+    @Transactional(readOnly = true)
     public ExpenseDto getExpenseById(Long expenseId, User user) {
-        Expense expense = expenseRepository.findById(expenseId)
+        Expense expense = expenseRepository.findWithPartiesById(expenseId)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
         
         // Check if user has access to this expense
@@ -132,7 +275,38 @@ public class ExpenseService {
         return convertToDto(expense);
     }
     
-    private ExpenseDto convertToDto(Expense expense) {
+    private static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+    
+    // Fetch one extra row so we know whether another page exists without a COUNT query
+    private static Pageable pageRequest(int limit) {
+        return PageRequest.of(0, clampPageSize(limit) + 1);
+    }
+    
+    private CursorPage<ExpenseDto> toPage(List<ExpenseRow> rows, int limit) {
+        int pageSize = clampPageSize(limit);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Expense last = rows.get(pageSize - 1).getExpense();
+            nextCursor = new ExpenseCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<ExpenseDto> items = rows.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor);
+    }
+    
+    public ExpenseDto convertToDto(Expense expense) {
+        return convertToDto(expense, paymentRepository.paidTowards(expense.getId()));
+    }
+    
+    public ExpenseDto convertToDto(ExpenseRow row) {
+        return convertToDto(row.getExpense(), row.getPaid());
+    }
+    
+    public ExpenseDto convertToDto(Expense expense, BigDecimal paid) {
         return new ExpenseDto(
                 expense.getId(),
                 expense.getDescription(),
@@ -143,7 +317,9 @@ public class ExpenseService {
                 expense.getCreatedAt(),
                 expense.getUpdatedAt(),
                 expense.getDueDate(),
-                expense.getNotes()
+                expense.getNotes(),
+                paid,
+                expense.getAmount().subtract(paid).max(BigDecimal.ZERO)
         );
     }
 }
@@ -0,0 +1,80 @@
+package com.fullstack.debt_manager.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fullstack.debt_manager.cache.CallerRunsCache;
+import com.fullstack.debt_manager.dto.ExpenseSummaryDto;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+import com.fullstack.debt_manager.repository.ExpenseRepository;
+import com.fullstack.debt_manager.repository.StatusTotals;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dashboard totals computed with two small aggregate queries and cached per user. Entries are
+ * evicted after any committed change to one of the user's expenses; the TTL bounds how stale
+ * the time-relative figures (overdue, this month) can get without a write.
+ */
+@Service
+public class ExpenseSummaryService {
+    
+    private final ExpenseRepository expenseRepository;
+    private final CallerRunsCache<Long, ExpenseSummaryDto> cache;
+    
+    public ExpenseSummaryService(ExpenseRepository expenseRepository,
+                                 @Value("${expenses.summary-cache.max-size:10000}") long maxSize,
+                                 @Value("${expenses.summary-cache.ttl:5m}") Duration ttl) {
+        this.expenseRepository = expenseRepository;
+        this.cache = new CallerRunsCache<>(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl));
+    }
+    
+    public ExpenseSummaryDto getSummary(User user) {
+        return cache.get(user.getId(), id -> compute(user));
+    }
+    
+    @TransactionalEventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        cache.invalidateAll(event.affectedUserIds());
+    }
+    
+    private ExpenseSummaryDto compute(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        return new ExpenseSummaryDto(
+                toDirection(expenseRepository.summarizeCreated(user, now, monthStart)),
+                toDirection(expenseRepository.summarizeDebts(user, now, monthStart))
+        );
+    }
+    
+    private static ExpenseSummaryDto.Direction toDirection(List<StatusTotals> rows) {
+        ExpenseSummaryDto.Direction direction = new ExpenseSummaryDto.Direction();
+        for (StatusTotals row : rows) {
+            if (row.getStatus() == ExpenseStatus.PENDING) {
+                // Past due but not yet marked OVERDUE by the scheduler
+                direction.setPendingAmount(direction.getPendingAmount().add(row.getTotal()));
+                direction.setPendingCount(direction.getPendingCount() + row.getCount());
+                direction.setOverdueAmount(direction.getOverdueAmount().add(row.getOverdueTotal()));
+                direction.setOverdueCount(direction.getOverdueCount() + row.getOverdueCount());
+            } else if (row.getStatus() == ExpenseStatus.OVERDUE) {
+                direction.setPendingAmount(direction.getPendingAmount().add(row.getTotal()));
+                direction.setPendingCount(direction.getPendingCount() + row.getCount());
+                direction.setOverdueAmount(direction.getOverdueAmount().add(row.getTotal()));
+                direction.setOverdueCount(direction.getOverdueCount() + row.getCount());
+            }
+            // Installments this month count under whatever status the expense is in now
+            direction.setPaidThisMonthAmount(direction.getPaidThisMonthAmount().add(row.getPaidSinceTotal()));
+            direction.setPaidThisMonthCount(direction.getPaidThisMonthCount() + row.getSettledCount());
+        }
+        return direction;
+    }
+}
@@ -0,0 +1,32 @@
+package com.fullstack.debt_manager.service;
+
+import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * What a single expense contributes to the balance ledger: {@code debtorId} owes
+ * {@code creditorId} the given amount.
+ */
+public record LedgerEntry(Long creditorId, Long debtorId, BigDecimal amount) {
+
+    /** Returns the outstanding contribution of an expense, or {@code null} if it no longer counts. */
+    public static LedgerEntry of(Expense expense) {
+        return of(expense, BigDecimal.ZERO);
+    }
+
+    /** Same as {@link #of(Expense)}, less what has already been paid towards the expense. */
+    public static LedgerEntry of(Expense expense, BigDecimal paid) {
+        if (expense.getStatus() == null || !expense.getStatus().isOutstanding()) {
+            return null;
+        }
+        return remaining(expense.getCreator().getId(), expense.getDebtor().getId(), expense.getAmount(), paid);
+    }
+
+    /** Returns what is left of {@code amount} after {@code paid}, or {@code null} if nothing is. */
+    public static LedgerEntry remaining(Long creditorId, Long debtorId, BigDecimal amount, BigDecimal paid) {
+        BigDecimal remaining = amount.subtract(paid);
+        return remaining.signum() > 0 ? new LedgerEntry(creditorId, debtorId, remaining) : null;
+    }
+}
@@ -0,0 +1,225 @@
+package com.fullstack.debt_manager.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fullstack.debt_manager.entity.OutboxEvent;
+import com.fullstack.debt_manager.event.OutboxDelivery;
+import com.fullstack.debt_manager.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers outbox events to in-process {@link OutboxDelivery} listeners, at least once.
+ *
+ * <p>A claim is a short transaction: {@code SELECT ... FOR UPDATE SKIP LOCKED} on due rows,
+ * then push their {@code availableAt} one lease into the future and commit. Delivery runs
+ * outside any transaction, so slow handlers hold neither locks nor connections, and several
+ * instances can dispatch side by side. Delivered rows are marked processed; failed ones are
+ * rescheduled with exponential backoff and parked after {@code max-attempts}. An instance that
+ * dies mid-delivery leaves its rows to be claimed again when the lease runs out.
+ *
+ * <p>The dispatcher polls, and commits that wrote events wake it early so deliveries normally
+ * follow the request within milliseconds.
+ */
+@Slf4j
+@Service
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter parked;
+    private final Timer lag;
+
+    private final Semaphore wakeUp = new Semaphore(0);
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            OutboxService outboxService,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${outbox.batch-size:100}") int batchSize,
+                            @Value("${outbox.poll-interval:1s}") Duration pollInterval,
+                            @Value("${outbox.lease:1m}") Duration lease,
+                            @Value("${outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${outbox.backoff:1s}") Duration backoff,
+                            @Value("${outbox.max-backoff:10m}") Duration maxBackoff,
+                            @Value("${outbox.retention:7d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        this.delivered = meterRegistry.counter("outbox.events", "result", "delivered");
+        this.retried = meterRegistry.counter("outbox.events", "result", "retried");
+        this.parked = meterRegistry.counter("outbox.events", "result", "parked");
+        this.lag = Timer.builder("outbox.delivery.lag")
+                .description("Time from the event's commit to its delivery")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!outboxService.hasConsumers()) {
+            log.info("No outbox event has a consumer; not dispatching");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "outbox-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @EventListener
+    public void onWritten(OutboxService.Written written) {
+        wakeUp.release();
+    }
+
+    /** Claims and delivers one batch; returns how many events were claimed. */
+    public int dispatchBatch() {
+        List<OutboxEvent> claimed = claim();
+        List<Long> done = new ArrayList<>();
+        for (OutboxEvent event : claimed) {
+            try {
+                deliver(event);
+                done.add(event.getId());
+            } catch (RuntimeException e) {
+                reschedule(event, e);
+            }
+        }
+        if (!done.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.markProcessed(done, now()));
+            delivered.increment(done.size());
+        }
+        return claimed.size();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval:1h}", initialDelayString = "${outbox.purge-interval:1h}")
+    public void purgeProcessed() {
+        int purged = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteProcessedBefore(now().minus(retention)));
+        if (purged > 0) {
+            log.info("Purged {} processed outbox events older than {}", purged, retention);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (dispatchBatch() < batchSize) {
+                    wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Outbox dispatch failed, retrying in {}", pollInterval, e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<OutboxEvent> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = now();
+            List<OutboxEvent> due = outboxEventRepository.findDueForUpdate(now, PageRequest.ofSize(batchSize));
+            for (OutboxEvent event : due) {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setAvailableAt(now.plus(lease));
+            }
+            return due;
+        });
+    }
+
+    private void deliver(OutboxEvent stored) {
+        Optional<Object> event = outboxService.read(stored);
+        if (event.isEmpty()) {
+            log.warn("Skipping outbox event {} of unknown type {}", stored.getId(), stored.getEventType());
+            return;
+        }
+        eventPublisher.publishEvent(new OutboxDelivery<>(stored.getId(), stored.getAttempts(), event.get()));
+        lag.record(Duration.between(stored.getCreatedAt(), now()));
+    }
+
+    private void reschedule(OutboxEvent event, RuntimeException failure) {
+        boolean giveUp = event.getAttempts() >= maxAttempts;
+        LocalDateTime retryAt = giveUp ? null : now().plus(backoff(event.getAttempts()));
+        String error = failure.toString();
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findById(event.getId())
+                .ifPresent(row -> {
+                    row.setAvailableAt(retryAt);
+                    row.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+                }));
+        if (giveUp) {
+            parked.increment();
+            log.error("Parking outbox event {} ({}) after {} attempts", event.getId(), event.getEventType(),
+                    event.getAttempts(), failure);
+        } else {
+            retried.increment();
+            log.warn("Outbox event {} ({}) failed attempt {}, retrying at {}: {}", event.getId(),
+                    event.getEventType(), event.getAttempts(), retryAt, error);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
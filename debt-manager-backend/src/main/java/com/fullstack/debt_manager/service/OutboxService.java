@@ -0,0 +1,193 @@
+package com.fullstack.debt_manager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.fullstack.debt_manager.entity.OutboxEvent;
+import com.fullstack.debt_manager.event.CustomerChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseReminderEvent;
+import com.fullstack.debt_manager.event.OutboxDelivery;
+import com.fullstack.debt_manager.event.PaymentRecordedEvent;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Writes the domain events published by the write paths and the due-date scheduler into the
+ * outbox table. The listeners run synchronously inside the publishing transaction, so an event
+ * is stored exactly when the change that caused it commits. {@link OutboxDispatcher} delivers
+ * them afterwards.
+ *
+ * <p>Only event types that some bean consumes with an {@code OutboxDelivery<T>} listener are
+ * stored, found once at startup; the rest cost nothing. Caches and stream subscribers listen for
+ * the domain events after commit instead, since a delivery reaches one instance only.
+ *
+ * <p>A transaction's events are held until it is about to commit and then inserted as JDBC
+ * batches, so a bulk import adds a few round trips rather than one per row, and the dispatcher
+ * is woken once per commit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService implements SmartInitializingSingleton {
+
+    // Stored type names are part of the table's contract; keep them stable across renames
+    private static final Map<String, Class<?>> EVENT_TYPES = Map.of(
+            "ExpenseChangedEvent", ExpenseChangedEvent.class,
+            "CustomerChangedEvent", CustomerChangedEvent.class,
+            "ExpenseReminderEvent", ExpenseReminderEvent.class,
+            "PaymentRecordedEvent", PaymentRecordedEvent.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (event_type, payload, created_at, available_at, attempts) VALUES (?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConfigurableListableBeanFactory beanFactory;
+
+    private volatile Set<Class<?>> consumed = Set.of();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Set<Class<?>> types = new HashSet<>();
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            Class<?> beanType = beanFactory.getType(name, false);
+            if (beanType != null) {
+                ReflectionUtils.doWithMethods(ClassUtils.getUserClass(beanType), method -> {
+                    ResolvableType parameter = ResolvableType.forMethodParameter(method, 0);
+                    if (OutboxDelivery.class.equals(parameter.resolve())) {
+                        types.add(parameter.getGeneric(0).resolve());
+                    }
+                }, method -> method.getParameterCount() == 1
+                        && AnnotatedElementUtils.hasAnnotation(method, EventListener.class));
+            }
+        }
+        types.retainAll(EVENT_TYPES.values());
+        consumed = Set.copyOf(types);
+        log.info("Outbox stores {}", consumed.isEmpty() ? "no events" :
+                consumed.stream().map(Class::getSimpleName).sorted().toList());
+    }
+
+    /** Whether any event type is stored, that is whether there is anything to dispatch. */
+    boolean hasConsumers() {
+        return !consumed.isEmpty();
+    }
+
+    @EventListener
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        write("ExpenseChangedEvent", event);
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        write("CustomerChangedEvent", event);
+    }
+
+    @EventListener
+    public void onExpenseReminder(ExpenseReminderEvent event) {
+        write("ExpenseReminderEvent", event);
+    }
+
+    @EventListener
+    public void onPaymentRecorded(PaymentRecordedEvent event) {
+        write("PaymentRecordedEvent", event);
+    }
+
+    Optional<Object> read(OutboxEvent stored) {
+        Class<?> type = EVENT_TYPES.get(stored.getEventType());
+        if (type == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(stored.getPayload(), type));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable " + stored.getEventType() + " payload", e);
+        }
+    }
+
+    private void write(String type, Object event) {
+        if (!consumed.contains(event.getClass())) {
+            return;
+        }
+        Pending pending;
+        try {
+            pending = new Pending(type, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type, e);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(pending));
+            eventPublisher.publishEvent(new Written(1));
+            return;
+        }
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (batch == null) {
+            batch = new Batch();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(batch);
+        }
+        batch.events.add(pending);
+    }
+
+    private void insert(List<Pending> events) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, BATCH_SIZE, (statement, event) -> {
+            statement.setString(1, event.type());
+            statement.setString(2, event.payload());
+            statement.setTimestamp(3, now);
+            statement.setTimestamp(4, now);
+        });
+    }
+
+    /** Published once events are committed to the outbox, to wake the dispatcher. */
+    record Written(int events) {
+    }
+
+    private record Pending(String type, String payload) {
+    }
+
+    // The events of one transaction, bound to it until it completes
+    private final class Batch implements TransactionSynchronization {
+        private final List<Pending> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            insert(events);
+        }
+
+        @Override
+        public void afterCommit() {
+            eventPublisher.publishEvent(new Written(events.size()));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxService.this);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.fullstack.debt_manager.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fullstack.debt_manager.dto.CursorPage;
+import com.fullstack.debt_manager.dto.PaymentDto;
+import com.fullstack.debt_manager.dto.PaymentReceiptDto;
+import com.fullstack.debt_manager.dto.PaymentRequest;
+import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.Payment;
+import com.fullstack.debt_manager.entity.PaymentSnapshot;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+import com.fullstack.debt_manager.event.OutboxDelivery;
+import com.fullstack.debt_manager.event.PaymentRecordedEvent;
+import com.fullstack.debt_manager.repository.ExpenseRepository;
+import com.fullstack.debt_manager.repository.PaymentRepository;
+import com.fullstack.debt_manager.repository.PaymentSnapshotRepository;
+import com.fullstack.debt_manager.repository.PaymentTail;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Records installments paid towards expenses. The amount paid so far is the expense's
+ * {@link PaymentSnapshot} plus the payments after it, so recording a payment inserts one row,
+ * nets one balance row and at most flips the expense to PAID, however long its history.
+ *
+ * <p>Each payment publishes a {@link PaymentRecordedEvent}, which the outbox hands back after
+ * commit to fold the payment into the snapshot off the request path; a restart only delays
+ * that. Payments and snapshots are both written under the expense's row lock, so a snapshot
+ * never races a payment: the total it folds in always matches its {@code lastPaymentId}.
+ */
+@Slf4j
+@Service
+public class PaymentService {
+
+    private final ExpenseRepository expenseRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentSnapshotRepository snapshotRepository;
+    private final BalanceService balanceService;
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentService(ExpenseRepository expenseRepository,
+                          PaymentRepository paymentRepository,
+                          PaymentSnapshotRepository snapshotRepository,
+                          BalanceService balanceService,
+                          UserService userService,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager) {
+        this.expenseRepository = expenseRepository;
+        this.paymentRepository = paymentRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.balanceService = balanceService;
+        this.userService = userService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public PaymentReceiptDto recordPayment(Long expenseId, PaymentRequest request, User user) {
+        Expense expense = expenseRepository.findByIdForUpdate(expenseId)
+                .orElseThrow(() -> new RuntimeException("Expense not found"));
+        // Only the party owed confirms money received; a debtor could otherwise settle their own debt
+        if (!expense.getCreator().getId().equals(user.getId())) {
+            throw new RuntimeException("You can only record payments on expenses you created");
+        }
+        if (!expense.getStatus().isOutstanding()) {
+            throw new RuntimeException("Only pending or overdue expenses can be paid");
+        }
+
+        BigDecimal paid = paymentRepository.paidTowards(expenseId);
+        BigDecimal remaining = expense.getAmount().subtract(paid);
+        if (request.getAmount().compareTo(remaining) > 0) {
+            throw new RuntimeException("Payment exceeds the " + remaining + " still owed");
+        }
+        LedgerEntry previous = LedgerEntry.of(expense, paid);
+
+        Payment payment = new Payment();
+        payment.setExpense(expense);
+        payment.setAmount(request.getAmount());
+        payment.setRecordedBy(user);
+        payment.setNote(request.getNote());
+        Payment saved = paymentRepository.save(payment);
+
+        paid = paid.add(request.getAmount());
+        remaining = remaining.subtract(request.getAmount());
+        if (remaining.signum() == 0) {
+            expense.setStatus(ExpenseStatus.PAID);
+        }
+        balanceService.apply(previous, LedgerEntry.of(expense, paid));
+        Long debtorId = expense.getDebtor().getId();
+        eventPublisher.publishEvent(ExpenseChangedEvent.updated(
+                expenseId, expense.getCreator().getId(), debtorId, debtorId));
+        eventPublisher.publishEvent(new PaymentRecordedEvent(expenseId, saved.getId()));
+
+        return new PaymentReceiptDto(convertToDto(saved), paid, remaining, expense.getStatus());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentDto> getPayments(Long expenseId, String cursor, int limit, User user) {
+        Expense expense = expenseRepository.findById(expenseId)
+                .orElseThrow(() -> new RuntimeException("Expense not found"));
+        checkAccess(expense, user);
+
+        int pageSize = Math.max(1, Math.min(limit, ExpenseService.MAX_PAGE_SIZE));
+        List<Payment> rows = paymentRepository.findPageByExpense(
+                expenseId, decodeCursor(cursor), PageRequest.of(0, pageSize + 1));
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = rows.get(pageSize - 1).getId().toString();
+        }
+        return new CursorPage<>(rows.stream().map(this::convertToDto).collect(Collectors.toList()), nextCursor);
+    }
+
+    /**
+     * Folds the expense's payments so far into its snapshot. Redelivery is harmless: a payment
+     * already folded in, by this delivery or a later one, leaves nothing to add.
+     */
+    @EventListener
+    public void onPaymentRecorded(OutboxDelivery<PaymentRecordedEvent> delivery) {
+        Long expenseId = delivery.event().expenseId();
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> takeSnapshot(expenseId)))) {
+            log.debug("Snapshotted payments of expense {}", expenseId);
+        }
+    }
+
+    private boolean takeSnapshot(Long expenseId) {
+        if (expenseRepository.findByIdForUpdate(expenseId).isEmpty()) {
+            return false;
+        }
+        PaymentSnapshot snapshot = snapshotRepository.findById(expenseId)
+                .orElseGet(() -> new PaymentSnapshot(expenseId, BigDecimal.ZERO, 0L, null));
+        PaymentTail tail = paymentRepository.findTail(expenseId, snapshot.getLastPaymentId());
+        if (tail.getLastPaymentId() == null) {
+            return false;
+        }
+        snapshot.setPaidTotal(snapshot.getPaidTotal().add(tail.getTotal()));
+        snapshot.setLastPaymentId(tail.getLastPaymentId());
+        snapshot.setTakenAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        snapshotRepository.save(snapshot);
+        return true;
+    }
+
+    private static void checkAccess(Expense expense, User user) {
+        if (!expense.getCreator().getId().equals(user.getId()) &&
+            !expense.getDebtor().getId().equals(user.getId())) {
+            throw new RuntimeException("Access denied to this expense");
+        }
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    public PaymentDto convertToDto(Payment payment) {
+        return new PaymentDto(
+                payment.getId(),
+                payment.getExpense().getId(),
+                payment.getAmount(),
+                userService.convertToDto(payment.getRecordedBy()),
+                payment.getNote(),
+                payment.getPaidAt()
+        );
+    }
+}
@@ -0,0 +1,140 @@
+package com.fullstack.debt_manager.service;
+
+/**
+ * Greedy minimum-cash-flow settlement over a net balance vector. Amounts are in minor units
+ * (cents) and {@code net[i] > 0} means participant {@code i} is owed money.
+ *
+ * <p>Each step matches the largest creditor with the largest debtor, which settles at least one
+ * of them, so a network of {@code n} participants needs at most {@code n - 1} transfers. Finding
+ * the true minimum is NP-hard; the greedy plan is the standard approximation and runs in
+ * {@code O(n log n)} on primitive arrays.
+ */
+public final class SettlementPlanner {
+
+    private SettlementPlanner() {
+    }
+
+    public static Transfers plan(long[] net) {
+        long[] remaining = net.clone();
+        IndexHeap creditors = new IndexHeap(remaining.length, remaining, false);
+        IndexHeap debtors = new IndexHeap(remaining.length, remaining, true);
+        for (int i = 0; i < remaining.length; i++) {
+            if (remaining[i] > 0) {
+                creditors.push(i);
+            } else if (remaining[i] < 0) {
+                debtors.push(i);
+            }
+        }
+
+        Transfers transfers = new Transfers(creditors.size + debtors.size);
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            int creditor = creditors.pop();
+            int debtor = debtors.pop();
+            long amount = Math.min(remaining[creditor], -remaining[debtor]);
+            transfers.add(debtor, creditor, amount);
+
+            remaining[creditor] -= amount;
+            remaining[debtor] += amount;
+            if (remaining[creditor] > 0) {
+                creditors.push(creditor);
+            }
+            if (remaining[debtor] < 0) {
+                debtors.push(debtor);
+            }
+        }
+        return transfers;
+    }
+
+    /** Transfer {@code i} moves {@code amount(i)} from participant {@code from(i)} to {@code to(i)}. */
+    public static final class Transfers {
+        private final int[] from;
+        private final int[] to;
+        private final long[] amounts;
+        private int size;
+
+        // Every transfer zeroes at least one participant, so this bound is never exceeded
+        Transfers(int participants) {
+            from = new int[participants];
+            to = new int[participants];
+            amounts = new long[participants];
+        }
+
+        void add(int debtor, int creditor, long amount) {
+            from[size] = debtor;
+            to[size] = creditor;
+            amounts[size] = amount;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int from(int i) {
+            return from[i];
+        }
+
+        public int to(int i) {
+            return to[i];
+        }
+
+        public long amount(int i) {
+            return amounts[i];
+        }
+    }
+
+    // Binary max-heap of participant indices ordered by |keys[i]|
+    private static final class IndexHeap {
+        private final int[] heap;
+        private final long[] keys;
+        private final boolean negated;
+        private int size;
+
+        IndexHeap(int capacity, long[] keys, boolean negated) {
+            this.heap = new int[capacity];
+            this.keys = keys;
+            this.negated = negated;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int index) {
+            int child = size++;
+            while (child > 0) {
+                int parent = (child - 1) >>> 1;
+                if (weight(heap[parent]) >= weight(index)) {
+                    break;
+                }
+                heap[child] = heap[parent];
+                child = parent;
+            }
+            heap[child] = index;
+        }
+
+        int pop() {
+            int top = heap[0];
+            int last = heap[--size];
+            int parent = 0;
+            int half = size >>> 1;
+            while (parent < half) {
+                int child = 2 * parent + 1;
+                if (child + 1 < size && weight(heap[child + 1]) > weight(heap[child])) {
+                    child++;
+                }
+                if (weight(last) >= weight(heap[child])) {
+                    break;
+                }
+                heap[parent] = heap[child];
+                parent = child;
+            }
+            heap[parent] = last;
+            return top;
+        }
+
+        private long weight(int index) {
+            return negated ? -keys[index] : keys[index];
+        }
+    }
+}
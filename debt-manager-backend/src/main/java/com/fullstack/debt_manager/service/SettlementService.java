@@ -0,0 +1,79 @@
+package com.fullstack.debt_manager.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import com.fullstack.debt_manager.dto.SettlementDto;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.repository.ExpenseRepository;
+import com.fullstack.debt_manager.repository.PairTotal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Plans the fewest transfers that clear what is outstanding on the user's own expenses. Only
+ * expenses the user created or owes are read: debts between other people, customers or not,
+ * are theirs alone. A transfer may still run between two counterparties when that saves one.
+ */
+@Service
+@RequiredArgsConstructor
+public class SettlementService {
+    private final ExpenseRepository expenseRepository;
+    private final UserService userService;
+    
+    public List<SettlementDto> getSettlementPlan(User user) {
+        List<PairTotal> totals = expenseRepository.sumByPairInvolving(ExpenseStatus.OUTSTANDING, user.getId());
+        if (totals.isEmpty()) {
+            return List.of();
+        }
+        
+        // Dense index per participant so balances live in a primitive vector
+        Map<Long, Integer> indexOf = new HashMap<>();
+        List<Long> userIds = new ArrayList<>();
+        for (PairTotal total : totals) {
+            indexOf.computeIfAbsent(total.getCreatorId(), id -> { userIds.add(id); return userIds.size() - 1; });
+            indexOf.computeIfAbsent(total.getDebtorId(), id -> { userIds.add(id); return userIds.size() - 1; });
+        }
+        
+        long[] net = new long[userIds.size()];
+        for (PairTotal total : totals) {
+            long cents = toCents(total.getTotal());
+            net[indexOf.get(total.getCreatorId())] += cents;
+            net[indexOf.get(total.getDebtorId())] -= cents;
+        }
+        
+        SettlementPlanner.Transfers transfers = SettlementPlanner.plan(net);
+        
+        Set<Long> involved = new HashSet<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            involved.add(userIds.get(transfers.from(i)));
+            involved.add(userIds.get(transfers.to(i)));
+        }
+        Map<Long, User> users = userService.findAllById(involved)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        List<SettlementDto> plan = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            plan.add(new SettlementDto(
+                    userService.convertToDto(users.get(userIds.get(transfers.from(i)))),
+                    userService.convertToDto(users.get(userIds.get(transfers.to(i)))),
+                    BigDecimal.valueOf(transfers.amount(i), 2)
+            ));
+        }
+        return plan;
+    }
+    
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+}
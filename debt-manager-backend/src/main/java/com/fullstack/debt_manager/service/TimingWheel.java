@@ -0,0 +1,81 @@
+package com.fullstack.debt_manager.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel for deadlines up to one revolution ahead. Scheduling is O(1) and each
+ * {@link #advance} only visits the slots whose tick has passed, so holding thousands of
+ * near-term deadlines costs nothing per tick beyond the ones that fire. Deadlines are clamped
+ * to tick granularity: an item fires on the first advance at or after the end of its tick.
+ */
+class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final List<List<Entry<T>>> slots;
+    private long currentTick;
+    private int size;
+
+    TimingWheel(Duration tick, Duration span, long startMillis) {
+        this.tickMillis = tick.toMillis();
+        int slotCount = (int) (span.toMillis() / tickMillis) + 1;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules {@code item} at {@code deadlineMillis}; one already due fires on the next
+     * advance. Returns {@code false}, without scheduling, when the deadline is beyond the span.
+     */
+    synchronized boolean schedule(T item, long deadlineMillis) {
+        long tick = Math.max(deadlineMillis / tickMillis, currentTick);
+        if (tick - currentTick >= slots.size()) {
+            return false;
+        }
+        slots.get(slotOf(tick)).add(new Entry<>(deadlineMillis, item));
+        size++;
+        return true;
+    }
+
+    /** Removes and returns every item whose deadline is at or before {@code nowMillis}. */
+    synchronized List<T> advance(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        long target = nowMillis / tickMillis;
+        // A long pause only needs one revolution: every slot is visited once
+        long last = Math.min(target, currentTick + slots.size() - 1);
+        for (long tick = currentTick; tick <= last; tick++) {
+            List<Entry<T>> slot = slots.get(slotOf(tick));
+            if (slot.isEmpty()) {
+                continue;
+            }
+            List<Entry<T>> pending = new ArrayList<>();
+            for (Entry<T> entry : slot) {
+                if (entry.deadlineMillis() <= nowMillis) {
+                    due.add(entry.item());
+                } else {
+                    pending.add(entry);
+                }
+            }
+            slot.clear();
+            slot.addAll(pending);
+        }
+        size -= due.size();
+        currentTick = Math.max(currentTick, target);
+        return due;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private int slotOf(long tick) {
+        return (int) (tick % slots.size());
+    }
+
+    private record Entry<T>(long deadlineMillis, T item) {
+    }
+}
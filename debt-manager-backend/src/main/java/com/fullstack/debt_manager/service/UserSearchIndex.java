@@ -0,0 +1,209 @@
+package com.fullstack.debt_manager.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fullstack.debt_manager.repository.UserRepository;
+import com.fullstack.debt_manager.repository.UserSearchTerms;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over username, email and full name. Queries of three or more
+ * characters are served by trigram posting lists (substring matches); shorter queries use a
+ * sorted term map (prefix matches only). Nothing here ever scans the users table.
+ *
+ * <p>Local registrations are indexed straight away; users registered through other instances
+ * are picked up by {@link #refresh()}. IDENTITY ids can commit out of order, so each refresh
+ * reads again from {@code refresh-overlap} ids below the highest id it has seen. Users are only
+ * ever added: the application has no way to rename or delete a user, and one that did would
+ * have to remove and re-add them here on every instance.
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_INFIX = 2;
+    
+    private final UserRepository userRepository;
+    private final long refreshOverlap;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // id -> normalized searchable terms; index 0 is always the username
+    private final Map<Long, String[]> termsById = new HashMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> terms = new TreeMap<>();
+    // Highest id returned by the refresh query; local adds never move it, since lower ids may
+    // still be uncommitted elsewhere
+    private volatile long lastLoadedId;
+    
+    public UserSearchIndex(UserRepository userRepository,
+                           @Value("${search.users.refresh-overlap:1000}") long refreshOverlap) {
+        this.userRepository = userRepository;
+        this.refreshOverlap = refreshOverlap;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int loaded = loadNewUsers();
+        log.info("User search index loaded with {} users", loaded);
+    }
+    
+    // Picks up users registered through other instances
+    @Scheduled(fixedDelayString = "${search.users.refresh-interval:60s}", initialDelayString = "${search.users.refresh-interval:60s}")
+    public void refresh() {
+        loadNewUsers();
+    }
+    
+    private int loadNewUsers() {
+        int loaded = 0;
+        long after = Math.max(0, lastLoadedId - refreshOverlap);
+        List<UserSearchTerms> batch;
+        do {
+            batch = userRepository.findSearchTermsAfter(after, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (UserSearchTerms user : batch) {
+                if (add(user.getId(), user.getUsername(), user.getEmail(), user.getFullName())) {
+                    loaded++;
+                }
+                after = user.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        lastLoadedId = Math.max(lastLoadedId, after);
+        return loaded;
+    }
+    
+    /** Indexes a user; returns false when they were already indexed. */
+    public boolean add(Long id, String username, String email, String fullName) {
+        List<String> userTerms = new ArrayList<>();
+        userTerms.add(normalize(username));
+        userTerms.add(normalize(email));
+        if (fullName != null) {
+            String name = normalize(fullName);
+            userTerms.add(name);
+            for (String word : name.split("\\s+")) {
+                if (!word.isEmpty() && !word.equals(name)) {
+                    userTerms.add(word);
+                }
+            }
+        }
+        
+        lock.writeLock().lock();
+        try {
+            if (termsById.putIfAbsent(id, userTerms.toArray(String[]::new)) != null) {
+                return false;
+            }
+            for (String term : userTerms) {
+                terms.computeIfAbsent(term, key -> new HashSet<>()).add(id);
+                for (int i = 0; i + 3 <= term.length(); i++) {
+                    trigrams.computeIfAbsent(term.substring(i, i + 3), key -> new HashSet<>()).add(id);
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns up to {@code limit} user ids matching {@code query}, ranked exact match first,
+     * then prefix matches, then substring matches, ties broken by username.
+     */
+    public List<Long> search(String query, Long excludeId, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = q.length() >= 3 ? trigramCandidates(q) : prefixCandidates(q);
+            
+            List<Ranked> ranked = new ArrayList<>();
+            for (Long id : candidates) {
+                if (id.equals(excludeId)) {
+                    continue;
+                }
+                String[] userTerms = termsById.get(id);
+                int rank = rank(userTerms, q);
+                if (rank >= 0) {
+                    ranked.add(new Ranked(id, rank, userTerms[0]));
+                }
+            }
+            
+            return ranked.stream()
+                    .sorted(Comparator.comparingInt(Ranked::rank).thenComparing(Ranked::username))
+                    .limit(limit)
+                    .map(Ranked::id)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private Set<Long> trigramCandidates(String q) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Set<Long> posting = trigrams.get(q.substring(i, i + 3));
+            if (posting == null) {
+                return Set.of();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        
+        Set<Long> candidates = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(postings.get(i));
+        }
+        return candidates;
+    }
+    
+    private Set<Long> prefixCandidates(String q) {
+        Set<Long> candidates = new HashSet<>();
+        terms.subMap(q, true, q + Character.MAX_VALUE, false)
+                .values()
+                .forEach(candidates::addAll);
+        return candidates;
+    }
+    
+    // Trigram hits can be false positives, so this also confirms the match
+    private static int rank(String[] userTerms, String q) {
+        int best = -1;
+        for (String term : userTerms) {
+            if (term.equals(q)) {
+                return RANK_EXACT;
+            }
+            if (term.startsWith(q)) {
+                best = RANK_PREFIX;
+            } else if (best < 0 && term.contains(q)) {
+                best = RANK_INFIX;
+            }
+        }
+        return best;
+    }
+    
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private record Ranked(Long id, int rank, String username) {
+    }
+}
@@ -4,20 +4,31 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.fullstack.debt_manager.dto.RegisterRequest;
 import com.fullstack.debt_manager.dto.UserDto;
 import com.fullstack.debt_manager.entity.User;
 import com.fullstack.debt_manager.repository.UserRepository;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    public static final int DEFAULT_SEARCH_RESULTS = 20;
+    public static final int MAX_SEARCH_RESULTS = 50;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserSearchIndex searchIndex;
     
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByUsername(username)
@@ -39,12 +50,22 @@ public class UserService {
         user.setFullName(request.getFullName());
         user.setPhoneNumber(request.getPhoneNumber());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        searchIndex.add(saved.getId(), saved.getUsername(), saved.getEmail(), saved.getFullName());
+        return saved;
     }
     
-    public List<UserDto> searchUsers(String query) {
-        return userRepository.searchUsers(query)
+    @Transactional(readOnly = true)
+    public List<UserDto> searchUsers(String query, User currentUser, int limit) {
+        List<Long> ids = searchIndex.search(query, currentUser.getId(), Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        Map<Long, User> users = userRepository.findAllById(ids)
                 .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        // Keep the index's ranking order
+        return ids.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -54,6 +75,14 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
     
+    public List<User> findAllById(Collection<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+    
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        return new HashSet<>(userRepository.findExistingIds(ids));
+    }
+    
     public UserDto convertToDto(User user) {
         return new UserDto(
                 user.getId(),
@@ -0,0 +1,53 @@
+-- Schema as previously produced by Hibernate's ddl-auto. IF NOT EXISTS lets databases that
+-- were created that way pick up this history without recreating anything.
+
+CREATE TABLE IF NOT EXISTS users (
+    id bigint NOT NULL AUTO_INCREMENT,
+    username varchar(255) NOT NULL,
+    email varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    full_name varchar(255),
+    phone_number varchar(255),
+    created_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT UKr43af9ap4edm43mmtq01oddj6 UNIQUE (username),
+    CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS customers (
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_id bigint NOT NULL,
+    customer_user_id bigint NOT NULL,
+    created_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKrh1g1a20omjmn6kurd35o3eit FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT FKdj1xrh4us7fv1hx60kwm8x7sp FOREIGN KEY (customer_user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS expenses (
+    id bigint NOT NULL AUTO_INCREMENT,
+    description varchar(255) NOT NULL,
+    amount decimal(10,2) NOT NULL,
+    creator_id bigint NOT NULL,
+    debtor_id bigint NOT NULL,
+    status enum ('CANCELLED','PAID','PENDING'),
+    created_at datetime(6),
+    updated_at datetime(6),
+    due_date datetime(6),
+    notes varchar(255),
+    PRIMARY KEY (id),
+    CONSTRAINT FK2qrwbl2gc9l2w517o8dlp0lac FOREIGN KEY (creator_id) REFERENCES users (id),
+    CONSTRAINT FK1h8rbvs2crjfpfyr3tt1ota95 FOREIGN KEY (debtor_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS balances (
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_low_id bigint NOT NULL,
+    user_high_id bigint NOT NULL,
+    amount decimal(12,2) NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_balances_pair UNIQUE (user_low_id, user_high_id),
+    CONSTRAINT FK42nocroi7km7b8bqde07l5icy FOREIGN KEY (user_low_id) REFERENCES users (id),
+    CONSTRAINT FK6nmi27ldyigbpe4j7jm2kklbj FOREIGN KEY (user_high_id) REFERENCES users (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,19 @@
+-- Keyset pages and per-user summaries seek on (party, created_at); InnoDB appends the
+-- primary key, so these also cover the id tie-breaker. They replace the single-column
+-- indexes MySQL created for the creator/debtor foreign keys.
+CREATE INDEX idx_expenses_creator_created ON expenses (creator_id, created_at);
+CREATE INDEX idx_expenses_debtor_created ON expenses (debtor_id, created_at);
+
+-- Status filters with due-date ranges (overdue sweeps, pending totals)
+CREATE INDEX idx_expenses_status_due ON expenses (status, due_date);
+
+-- addCustomer only checked existence in the application, so concurrent requests could
+-- insert the same pair twice. Keep the oldest row before enforcing uniqueness.
+DELETE duplicate
+FROM customers duplicate
+JOIN customers original
+  ON original.user_id = duplicate.user_id
+ AND original.customer_user_id = duplicate.customer_user_id
+ AND original.id < duplicate.id;
+
+ALTER TABLE customers ADD CONSTRAINT uk_customers_user_customer UNIQUE (user_id, customer_user_id);
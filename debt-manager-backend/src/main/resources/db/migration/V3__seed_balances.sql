@@ -0,0 +1,8 @@
+-- Seed the balance ledger from pending expenses for databases that predate it
+INSERT INTO balances (user_low_id, user_high_id, amount, updated_at)
+SELECT LEAST(creator_id, debtor_id), GREATEST(creator_id, debtor_id),
+       SUM(CASE WHEN creator_id < debtor_id THEN amount ELSE -amount END), NOW(6)
+FROM expenses
+WHERE status = 'PENDING'
+  AND NOT EXISTS (SELECT 1 FROM balances)
+GROUP BY LEAST(creator_id, debtor_id), GREATEST(creator_id, debtor_id);
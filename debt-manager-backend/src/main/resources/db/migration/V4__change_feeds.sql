@@ -0,0 +1,16 @@
+-- Delta sync: expenses are read back in (party, updated_at) order, customers in
+-- (owner, created_at) order. InnoDB appends the primary key for the id tie-breaker.
+CREATE INDEX idx_expenses_creator_updated ON expenses (creator_id, updated_at);
+CREATE INDEX idx_expenses_debtor_updated ON expenses (debtor_id, updated_at);
+CREATE INDEX idx_customers_user_created ON customers (user_id, created_at);
+
+CREATE TABLE tombstones (
+    id bigint NOT NULL AUTO_INCREMENT,
+    entity_type enum ('CUSTOMER','EXPENSE') NOT NULL,
+    entity_id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    deleted_at datetime(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_tombstones_user_type_deleted (user_id, entity_type, deleted_at),
+    INDEX idx_tombstones_deleted (deleted_at)
+) ENGINE=InnoDB;
@@ -0,0 +1,15 @@
+-- Transactional outbox. Pending rows are found through available_at, which is NULL once a
+-- row is processed or parked, so the claim query only ever touches due work.
+CREATE TABLE outbox_events (
+    id bigint NOT NULL AUTO_INCREMENT,
+    event_type varchar(100) NOT NULL,
+    payload varchar(4000) NOT NULL,
+    created_at datetime(6) NOT NULL,
+    available_at datetime(6),
+    attempts integer NOT NULL,
+    last_error varchar(1000),
+    processed_at datetime(6),
+    PRIMARY KEY (id),
+    INDEX idx_outbox_available (available_at),
+    INDEX idx_outbox_processed (processed_at)
+) ENGINE=InnoDB;
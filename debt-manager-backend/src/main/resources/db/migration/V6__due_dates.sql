@@ -0,0 +1,5 @@
+-- Expenses past their due date move from PENDING to OVERDUE. reminded_at records the
+-- due-soon reminder so it is sent once, by whichever instance gets there first.
+ALTER TABLE expenses
+    MODIFY status enum ('CANCELLED','PAID','PENDING','OVERDUE'),
+    ADD COLUMN reminded_at datetime(6);
@@ -0,0 +1,23 @@
+-- Installments towards an expense, append-only, plus one running snapshot per expense so the
+-- amount paid is read as snapshot + the payments after it instead of the whole history.
+CREATE TABLE payments (
+    id bigint NOT NULL AUTO_INCREMENT,
+    expense_id bigint NOT NULL,
+    amount decimal(10,2) NOT NULL,
+    recorded_by_id bigint NOT NULL,
+    note varchar(255),
+    paid_at datetime(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_payments_expense (expense_id, id),
+    CONSTRAINT fk_payments_expense FOREIGN KEY (expense_id) REFERENCES expenses (id),
+    CONSTRAINT fk_payments_recorded_by FOREIGN KEY (recorded_by_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE payment_snapshots (
+    expense_id bigint NOT NULL,
+    paid_total decimal(12,2) NOT NULL,
+    last_payment_id bigint NOT NULL,
+    taken_at datetime(6) NOT NULL,
+    PRIMARY KEY (expense_id),
+    CONSTRAINT fk_payment_snapshots_expense FOREIGN KEY (expense_id) REFERENCES expenses (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,7 @@
+-- Per-user data versions behind the list ETags, bumped in the transaction of every change that
+-- touches the user so all instances agree on them as soon as it commits.
+CREATE TABLE user_versions (
+    user_id bigint NOT NULL,
+    version bigint NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE=InnoDB;
@@ -0,0 +1,5 @@
+-- When an expense moved to PAID, so the monthly paid figure does not follow later edits to
+-- updated_at. Rows already PAID take their last update, the closest record of it there is.
+ALTER TABLE expenses ADD COLUMN paid_at datetime(6);
+
+UPDATE expenses SET paid_at = updated_at WHERE status = 'PAID';
@@ -0,0 +1,78 @@
+package com.fullstack.debt_manager.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fullstack.debt_manager.dto.ApiResponse;
+import com.fullstack.debt_manager.dto.CursorPage;
+import com.fullstack.debt_manager.dto.ExpenseDto;
+import com.fullstack.debt_manager.service.ExpenseService;
+
+/**
+ * Response body serialization for an expense page, using the same builder and SNAKE_CASE
+ * naming strategy as the application's message converter. The camelCase variant isolates
+ * what the naming strategy itself costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"50", "200"})
+    private int expenses;
+
+    @Param({"SNAKE_CASE", "LOWER_CAMEL_CASE"})
+    private String naming;
+
+    private ObjectWriter writer;
+    private ApiResponse<List<ExpenseDto>> response;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("SNAKE_CASE".equals(naming)) {
+            builder.propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        }
+        writer = builder.build().writer();
+
+        ExpenseService expenseService = BenchmarkData.expenseService();
+        List<ExpenseDto> page = BenchmarkData.expenses(expenses).stream()
+                .map(expense -> expenseService.convertToDto(expense, BigDecimal.ZERO))
+                .toList();
+        response = ApiResponse.page(new CursorPage<>(page, "MjAyNC0wMS0wMVQwOTowMHwx"));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ApiResponseSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+package com.fullstack.debt_manager.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.service.ExpenseService;
+import com.fullstack.debt_manager.service.UserService;
+
+/**
+ * Detached entities shaped like a real expense history, shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static ExpenseService expenseService() {
+        // convertToDto with a known paid amount only touches UserService.convertToDto, which needs no collaborators
+        return new ExpenseService(null, null, new UserService(null, null, null), null, null);
+    }
+
+    static List<Expense> expenses(int count) {
+        User creator = user(1L, "alice");
+        User debtor = user(2L, "bob");
+        ExpenseStatus[] statuses = ExpenseStatus.values();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Expense expense = new Expense();
+            expense.setId((long) i + 1);
+            expense.setDescription("Dinner split #" + i);
+            expense.setAmount(BigDecimal.valueOf(1_000 + i % 9_000, 2));
+            expense.setCreator(i % 2 == 0 ? creator : debtor);
+            expense.setDebtor(i % 2 == 0 ? debtor : creator);
+            expense.setStatus(statuses[i % statuses.length]);
+            expense.setCreatedAt(start.plusMinutes(i));
+            expense.setUpdatedAt(start.plusMinutes(i));
+            expense.setDueDate(start.plusDays(30 + i % 30));
+            expense.setNotes(i % 4 == 0 ? null : "Paid by card");
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setFullName(Character.toUpperCase(username.charAt(0)) + username.substring(1));
+        user.setPhoneNumber("+15555550100");
+        return user;
+    }
+}
@@ -0,0 +1,59 @@
+package com.fullstack.debt_manager.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fullstack.debt_manager.dto.ExpenseDto;
+import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.service.ExpenseService;
+
+/**
+ * Entity to DTO mapping for a page of expenses and for a full export-sized history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseDtoConversionBenchmark {
+
+    @Param({"50", "10000"})
+    private int expenses;
+
+    private ExpenseService expenseService;
+    private List<Expense> history;
+
+    @Setup
+    public void setUp() {
+        expenseService = BenchmarkData.expenseService();
+        history = BenchmarkData.expenses(expenses);
+    }
+
+    @Benchmark
+    public List<ExpenseDto> convertToDto() {
+        return history.stream().map(expense -> expenseService.convertToDto(expense, BigDecimal.ZERO)).toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExpenseDtoConversionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
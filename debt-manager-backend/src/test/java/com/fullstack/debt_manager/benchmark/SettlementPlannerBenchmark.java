@@ -0,0 +1,62 @@
+package com.fullstack.debt_manager.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fullstack.debt_manager.service.SettlementPlanner;
+
+/**
+ * Settlement planning over random zero-sum networks.
+ * Runs from the test classpath via {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementPlannerBenchmark {
+
+    @Param({"1000", "10000"})
+    private int participants;
+
+    private long[] net;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        net = new long[participants];
+        long sum = 0;
+        for (int i = 0; i < participants - 1; i++) {
+            net[i] = random.nextLong(-500_000, 500_000);
+            sum += net[i];
+        }
+        net[participants - 1] = -sum;
+    }
+
+    @Benchmark
+    public SettlementPlanner.Transfers plan() {
+        return SettlementPlanner.plan(net);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SettlementPlannerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
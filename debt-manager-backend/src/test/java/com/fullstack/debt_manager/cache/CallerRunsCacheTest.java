@@ -0,0 +1,78 @@
+package com.fullstack.debt_manager.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class CallerRunsCacheTest {
+
+    private final CallerRunsCache<String, String> cache = new CallerRunsCache<>(Caffeine.newBuilder().recordStats());
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = executor.submit(() -> cache.get("alice", key -> blockingLoad(key, loading, release)));
+        loading.await(5, TimeUnit.SECONDS);
+
+        Future<String> second = executor.submit(() -> cache.get("alice", key -> blockingLoad(key, loading, release)));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("ALICE");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("ALICE");
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidationDuringLoadDiscardsTheResult() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> stale = executor.submit(() -> cache.get("alice", key -> blockingLoad(key, loading, release)));
+        loading.await(5, TimeUnit.SECONDS);
+
+        cache.invalidate("alice");
+        release.countDown();
+        assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("ALICE");
+
+        assertThat(cache.get("alice", key -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void failedLoadIsRethrownAndNotCached() {
+        assertThatThrownBy(() -> cache.get("alice", key -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("database down");
+
+        assertThat(cache.get("alice", String::toUpperCase)).isEqualTo("ALICE");
+    }
+
+    private String blockingLoad(String key, CountDownLatch loading, CountDownLatch release) {
+        loads.incrementAndGet();
+        loading.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return key.toUpperCase();
+    }
+}
@@ -0,0 +1,235 @@
+package com.fullstack.debt_manager.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static com.fullstack.debt_manager.support.TestUsers.register;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fullstack.debt_manager.cache.CacheRegions;
+import com.fullstack.debt_manager.dto.UserDto;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.repository.CustomerRepository;
+import com.fullstack.debt_manager.repository.UserRepository;
+import com.fullstack.debt_manager.service.CustomerService;
+import com.fullstack.debt_manager.service.UserSearchIndex;
+import com.fullstack.debt_manager.service.UserService;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@H2JpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({HibernateCacheConfig.class, CustomerService.class, UserService.class, UserSearchIndex.class,
+        BCryptPasswordEncoder.class})
+// Entries reach the cache as transactions commit, so each call below runs in its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HibernateCacheConfigTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterBinder hibernateCacheMetrics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JpaProperties jpaProperties;
+
+    @Autowired
+    private HibernateProperties hibernateProperties;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void usersAreLoadedFromTheCacheAfterTheFirstRead() {
+        User created = userService.createUser(register("cached-user"));
+        // Rows with IDENTITY ids are not cached on insert, only once first read
+        userService.findById(created.getId());
+        statistics.clear();
+
+        User loaded = userService.findById(created.getId());
+
+        assertThat(loaded.getUsername()).isEqualTo("cached-user");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(CacheRegions.USERS).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void customerListsAreQueriedButTheirUsersComeFromTheCache() {
+        User owner = userService.createUser(register("owner"));
+        User first = userService.createUser(register("first-customer"));
+        User second = userService.createUser(register("second-customer"));
+        customerService.addCustomer(first.getId(), owner);
+        assertThat(usernames(customerService.getCustomers(owner))).containsExactly("first-customer");
+
+        statistics.clear();
+        assertThat(usernames(customerService.getCustomers(owner))).containsExactly("first-customer");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(CacheRegions.USERS).getHitCount()).isEqualTo(1);
+
+        customerService.addCustomer(second.getId(), owner);
+        assertThat(usernames(customerService.getCustomers(owner)))
+                .containsExactlyInAnyOrder("first-customer", "second-customer");
+
+        customerService.removeCustomer(first.getId(), owner);
+        assertThat(usernames(customerService.getCustomers(owner))).containsExactly("second-customer");
+    }
+
+    @Test
+    void passwordChangesReplaceTheCachedUser() {
+        User user = userService.createUser(register("rotating"));
+        userService.findById(user.getId());
+
+        User changed = userRepository.findById(user.getId()).orElseThrow();
+        changed.setPassword("rotated");
+        userRepository.save(changed);
+
+        assertThat(userService.findById(user.getId()).getPassword()).isEqualTo("rotated");
+    }
+
+    @Test
+    void reportsHitsAndMissesPerRegion() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        hibernateCacheMetrics.bindTo(registry);
+        User user = userService.createUser(register("measured"));
+        statistics.clear();
+        entityManagerFactory.getCache().evict(User.class);
+
+        userService.findById(user.getId());
+        userService.findById(user.getId());
+        userService.findById(user.getId());
+
+        assertThat(registry.get("cache.gets").tags("cache", CacheRegions.USERS, "result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", CacheRegions.USERS, "result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.hit.ratio").tags("cache", CacheRegions.USERS).gauge().value())
+                .isEqualTo(2.0 / 3);
+        assertThat(registry.find("cache.hit.ratio").tags("cache", CacheRegions.CUSTOMERS).gauge()).isNotNull();
+    }
+
+    @Test
+    void anotherInstanceSeesCustomerChangesAtOnce() {
+        User owner = userService.createUser(register("shared-owner"));
+        User first = userService.createUser(register("shared-first"));
+        User second = userService.createUser(register("shared-second"));
+        customerService.addCustomer(first.getId(), owner);
+
+        try (SecondInstance other = new SecondInstance()) {
+            assertThat(other.customerUsernames(owner)).containsExactly("shared-first");
+            assertThat(other.customerUsernames(owner)).containsExactly("shared-first");
+
+            customerService.addCustomer(second.getId(), owner);
+            assertThat(other.customerUsernames(owner)).containsExactlyInAnyOrder("shared-first", "shared-second");
+
+            customerService.removeCustomer(first.getId(), owner);
+            assertThat(other.customerUsernames(owner)).containsExactly("shared-second");
+        }
+    }
+
+    @Test
+    void isOffWhenReadReplicasAreConfigured() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(HibernateCacheConfig.class)
+                .withPropertyValues("datasource.replicas.urls=jdbc:mysql://replica/debt_manager")
+                .run(context -> assertThat(context).doesNotHaveBean(CacheManager.class));
+        new ApplicationContextRunner()
+                .withUserConfiguration(HibernateCacheConfig.class)
+                .withPropertyValues("hibernate-cache.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(CacheManager.class));
+    }
+
+    private static List<String> usernames(List<UserDto> users) {
+        return users.stream().map(UserDto::getUsername).toList();
+    }
+
+    /**
+     * A second SessionFactory over the same database with a cache manager of its own, standing in
+     * for another application instance.
+     */
+    private class SecondInstance implements AutoCloseable {
+
+        private final CacheManager cacheManager = new HibernateCacheConfig()
+                .hibernateCacheManager(100, Duration.ofMinutes(1), 100, Duration.ofHours(1));
+        private final LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        private final CustomerRepository customers;
+        private final TransactionTemplate transactions;
+
+        SecondInstance() {
+            HibernatePropertiesCustomizer cacheProperties =
+                    new HibernateCacheConfig().hibernateCacheProperties(cacheManager);
+            factory.setDataSource(dataSource);
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setPackagesToScan(User.class.getPackageName());
+            Map<String, Object> properties = hibernateProperties.determineHibernateProperties(
+                    jpaProperties.getProperties(),
+                    new HibernateSettings().hibernatePropertiesCustomizers(List.of(cacheProperties)));
+            // The schema belongs to the test's own instance
+            properties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+            factory.setJpaPropertyMap(properties);
+            factory.afterPropertiesSet();
+            EntityManagerFactory entityManagerFactory = factory.getObject();
+            customers = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+                    .getRepository(CustomerRepository.class);
+            transactions = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        }
+
+        List<String> customerUsernames(User user) {
+            return transactions.execute(status -> customers.findByUser(user).stream()
+                    .map(customer -> customer.getCustomerUser().getUsername())
+                    .toList());
+        }
+
+        @Override
+        public void close() {
+            factory.destroy();
+            cacheManager.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.fullstack.debt_manager.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private SwitchableDataSource replica;
+    private ReplicaRoutingDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate reads;
+    private TransactionTemplate writes;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        replica = new SwitchableDataSource(database("replica"));
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofSeconds(5),
+                Duration.ofSeconds(30), "SELECT lag AS Seconds_Behind_Source FROM replica_status", registry, nanos::get);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+        writes = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void sendsReadOnlyTransactionsToTheReplica() {
+        assertThat(node(reads)).isEqualTo("replica");
+        assertThat(node(writes)).isEqualTo("primary");
+        // Outside a transaction nothing marks the connection read-only
+        assertThat(node()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsItsOwnWritesFromThePrimaryForAWhile() {
+        signIn(7L);
+        writes.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET writes = writes + 1"));
+
+        assertThat(node(reads)).isEqualTo("primary");
+        signIn(8L);
+        assertThat(node(reads)).isEqualTo("replica");
+
+        signIn(7L);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        assertThat(node(reads)).isEqualTo("replica");
+    }
+
+    @Test
+    void everyoneAChangeTouchedReadsItFromThePrimary() {
+        signIn(7L);
+        writes.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+            dataSource.onExpenseChanged(ExpenseChangedEvent.created(10L, 7L, 8L));
+        });
+
+        // The debtor's client refetches as soon as it is told of the new expense
+        signIn(8L);
+        assertThat(node(reads)).isEqualTo("primary");
+        signIn(9L);
+        assertThat(node(reads)).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWritesDoNotStick() {
+        signIn(7L);
+        writes.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE node SET writes = writes + 1");
+            status.setRollbackOnly();
+        });
+
+        assertThat(node(reads)).isEqualTo("replica");
+    }
+
+    @Test
+    void ejectsAFailingReplicaUntilItIsHealthyAgain() {
+        replica.down = true;
+
+        assertThat(node(reads)).isEqualTo("primary");
+        assertThat(dataSource.getHealthyCount()).isZero();
+        assertThat(registry.get("datasource.replicas.ejected").counter().count()).isEqualTo(1);
+
+        replica.down = false;
+        // Still ejected until the health check has seen it answer
+        assertThat(node(reads)).isEqualTo("primary");
+        dataSource.checkReplicas();
+        assertThat(registry.get("datasource.replicas.healthy").gauge().value()).isEqualTo(1);
+        assertThat(node(reads)).isEqualTo("replica");
+    }
+
+    @Test
+    void ejectsAReplicaThatFellBehindUntilItCatchesUp() {
+        JdbcTemplate replicaStatus = new JdbcTemplate(replica);
+        replicaStatus.update("UPDATE replica_status SET lag = 31");
+        dataSource.checkReplicas();
+        assertThat(node(reads)).isEqualTo("primary");
+
+        replicaStatus.update("UPDATE replica_status SET lag = 2");
+        dataSource.checkReplicas();
+        assertThat(node(reads)).isEqualTo("replica");
+
+        // Replication threads stopped: the lag is unknown
+        replicaStatus.update("UPDATE replica_status SET lag = NULL");
+        dataSource.checkReplicas();
+        assertThat(node(reads)).isEqualTo("primary");
+
+        replicaStatus.update("UPDATE replica_status SET lag = 0");
+        dataSource.checkReplicas();
+        replicaStatus.update("DELETE FROM replica_status");
+        dataSource.checkReplicas();
+        assertThat(dataSource.getHealthyCount()).isZero();
+        assertThat(registry.get("datasource.replicas.ejected").counter().count()).isEqualTo(3);
+    }
+
+    private String node(TransactionTemplate transaction) {
+        return transaction.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static void signIn(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name varchar(20), writes int)");
+        jdbcTemplate.update("INSERT INTO node VALUES (?, 0)", name);
+        jdbcTemplate.execute("CREATE TABLE replica_status (lag bigint)");
+        jdbcTemplate.update("INSERT INTO replica_status VALUES (0)");
+        return dataSource;
+    }
+
+    static class SwitchableDataSource extends DelegatingDataSource {
+        volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
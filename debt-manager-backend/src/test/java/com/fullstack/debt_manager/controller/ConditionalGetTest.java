@@ -0,0 +1,137 @@
+package com.fullstack.debt_manager.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fullstack.debt_manager.dto.CursorPage;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.CustomerChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+import com.fullstack.debt_manager.service.ChangeFeedService;
+import com.fullstack.debt_manager.service.CustomerService;
+import com.fullstack.debt_manager.service.DataVersionService;
+import com.fullstack.debt_manager.service.ExpenseExportService;
+import com.fullstack.debt_manager.service.ExpenseImportService;
+import com.fullstack.debt_manager.service.ExpenseService;
+import com.fullstack.debt_manager.service.ExpenseSummaryService;
+import com.fullstack.debt_manager.service.PaymentService;
+
+class ConditionalGetTest {
+
+    private final ExpenseService expenseService = mock(ExpenseService.class);
+    private final CustomerService customerService = mock(CustomerService.class);
+    private final DataVersionService dataVersionService = versions();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(
+                        new ExpenseController(expenseService, mock(ExpenseImportService.class),
+                                mock(ExpenseExportService.class), mock(ExpenseSummaryService.class), dataVersionService,
+                                mock(ChangeFeedService.class), mock(PaymentService.class)),
+                        new CustomerController(customerService, dataVersionService, mock(ChangeFeedService.class)))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+        when(expenseService.getAllExpensesForUser(any(), isNull(), anyInt())).thenReturn(new CursorPage<>(List.of(), null));
+        when(customerService.getCustomers(any())).thenReturn(List.of());
+        authenticate(1L);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void unchangedListIsAnswered304WithoutQuerying() throws Exception {
+        String etag = mockMvc.perform(get("/expenses"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/expenses").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+
+        verify(expenseService, times(1)).getAllExpensesForUser(any(), isNull(), anyInt());
+    }
+
+    @Test
+    void expenseChangeInvalidatesEveryAffectedUser() throws Exception {
+        String creatorTag = etag("/expenses");
+        authenticate(2L);
+        String debtorTag = etag("/expenses");
+        authenticate(3L);
+        String bystanderTag = etag("/expenses");
+
+        dataVersionService.onExpenseChanged(ExpenseChangedEvent.created(10L, 1L, 2L));
+
+        authenticate(1L);
+        mockMvc.perform(get("/expenses").header("If-None-Match", creatorTag)).andExpect(status().isOk());
+        authenticate(2L);
+        mockMvc.perform(get("/expenses").header("If-None-Match", debtorTag)).andExpect(status().isOk());
+        authenticate(3L);
+        mockMvc.perform(get("/expenses").header("If-None-Match", bystanderTag)).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void customerChangeInvalidatesTheOwner() throws Exception {
+        String etag = etag("/customers");
+        mockMvc.perform(get("/customers").header("If-None-Match", etag)).andExpect(status().isNotModified());
+
+        dataVersionService.onCustomerChanged(CustomerChangedEvent.added(1L, 2L));
+
+        mockMvc.perform(get("/customers").header("If-None-Match", etag)).andExpect(status().isOk());
+        verify(customerService, times(2)).getCustomers(any());
+    }
+
+    @Test
+    void tagsAreNotSharedBetweenUsers() throws Exception {
+        String etag = etag("/expenses");
+        authenticate(2L);
+        mockMvc.perform(get("/expenses").header("If-None-Match", etag)).andExpect(status().isOk());
+    }
+
+    private String etag(String path) throws Exception {
+        return mockMvc.perform(get(path)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+    }
+
+    private static DataVersionService versions() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:versions-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE user_versions (user_id bigint PRIMARY KEY, version bigint NOT NULL)");
+        return new DataVersionService(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+    }
+
+    private static void authenticate(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
@@ -0,0 +1,201 @@
+package com.fullstack.debt_manager.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Closed-loop load against a running server: at each concurrency level every client issues
+ * authenticated {@code GET} requests back to back for a fixed time, then the run reports
+ * throughput, errors and latency percentiles. Run it once against a server started with
+ * {@code --spring.profiles.active=load-test} (platform threads) and once with
+ * {@code load-test,virtual-threads} to compare. Without the {@code load-test} profile the
+ * per-user rate limits answer most requests with 429 and the run stops after seeding.
+ * <p>
+ * This is a standalone program, not a unit test: start it from the test classpath, for example
+ * {@code java -cp target/test-classes:<dependencies> com.fullstack.debt_manager.loadtest.ExpenseApiLoadRunner}.
+ * <p>
+ * Arguments, all optional: base URL, comma-separated concurrency levels, seconds per level,
+ * path, p99 target in ms. For example
+ * {@code http://localhost:8080/api 50,200,800,1600 20 /expenses?limit=50 500}.
+ */
+public class ExpenseApiLoadRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int SEED_EXPENSES = 200;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080/api";
+        int[] levels = Arrays.stream((args.length > 1 ? args[1] : "50,200,800,1600").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        Duration perLevel = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 20);
+        String path = args.length > 3 ? args[3] : "/expenses?limit=50";
+        long p99TargetMillis = args.length > 4 ? Long.parseLong(args[4]) : 500;
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        String token = seed(client, baseUrl);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        // Warm the JIT, caches and connection pool before measuring
+        run(client, request, Math.min(levels[0], 50), Duration.ofSeconds(5));
+
+        System.out.printf("%-12s %10s %10s %8s %8s %9s %9s %9s%n",
+                "concurrency", "requests", "req/s", "errors", "429s", "p50 ms", "p99 ms", "max ms");
+        int maxSustained = 0;
+        long throttled = 0;
+        for (int level : levels) {
+            Result result = run(client, request, level, perLevel);
+            System.out.printf("%-12d %10d %10.0f %8d %8d %9.1f %9.1f %9.1f%n", level, result.requests(),
+                    result.requests() / (double) perLevel.toSeconds(), result.errors(), result.throttled(),
+                    result.percentileMillis(0.50), result.percentileMillis(0.99), result.percentileMillis(1.0));
+            long failures = result.errors() + result.throttled();
+            if (failures * 100 <= result.requests() && result.percentileMillis(0.99) <= p99TargetMillis) {
+                maxSustained = level;
+            }
+            throttled += result.throttled();
+        }
+        System.out.printf("Highest concurrency with p99 <= %d ms and <= 1%% errors: %s%n", p99TargetMillis,
+                maxSustained > 0 ? maxSustained : "none");
+        if (throttled > 0) {
+            System.out.printf("%d requests were rate limited; start the server with the load-test profile%n",
+                    throttled);
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Result>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> loop(client, request, deadline)));
+            }
+            Result total = new Result(new long[0], 0, 0, 0);
+            for (Future<Result> future : futures) {
+                total = total.merge(future.get());
+            }
+            return total;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static Result loop(HttpClient client, HttpRequest request, long deadline) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        int errors = 0;
+        int throttled = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 429) {
+                    throttled++;
+                } else if (response.statusCode() >= 400) {
+                    errors++;
+                }
+            } catch (IOException e) {
+                errors++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return new Result(Arrays.copyOf(latencies, count), count, errors, throttled);
+    }
+
+    // Registers (or logs in) a load-test user with a counterparty and some expenses to list
+    private static String seed(HttpClient client, String baseUrl) throws Exception {
+        String token = authenticate(client, baseUrl, "loadtest");
+        String peerToken = authenticate(client, baseUrl, "loadtest-peer");
+        long peerId = get(client, baseUrl + "/users/me", peerToken).path("data").path("id").asLong();
+
+        JsonNode existing = get(client, baseUrl + "/expenses?limit=1", token).path("data");
+        if (existing.isEmpty()) {
+            for (int i = 0; i < SEED_EXPENSES; i++) {
+                JsonNode created = post(client, baseUrl + "/expenses", token, Map.of(
+                        "description", "Load test expense " + i,
+                        "amount", 10 + i % 90,
+                        "debtor_id", peerId));
+                if (!created.path("success").asBoolean()) {
+                    throw new IllegalStateException("Seeding expense " + i + " failed: "
+                            + created.path("message").asText() + " (is the server running the load-test profile?)");
+                }
+            }
+        }
+        return token;
+    }
+
+    private static String authenticate(HttpClient client, String baseUrl, String username) throws Exception {
+        Map<String, Object> credentials = Map.of("username", username, "password", "load-test-password");
+        JsonNode login = post(client, baseUrl + "/auth/login", null, credentials);
+        if (!login.path("success").asBoolean()) {
+            login = post(client, baseUrl + "/auth/register", null, Map.of(
+                    "username", username,
+                    "email", username + "@example.com",
+                    "password", "load-test-password",
+                    "full_name", "Load Test"));
+        }
+        return login.path("data").path("token").asText();
+    }
+
+    private static JsonNode get(HttpClient client, String url, String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return MAPPER.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    private static JsonNode post(HttpClient client, String url, String token, Object body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return MAPPER.readTree(client.send(request.build(), HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    private record Result(long[] latencies, long requests, long errors, long throttled) {
+
+        Result merge(Result other) {
+            long[] merged = Arrays.copyOf(latencies, latencies.length + other.latencies.length);
+            System.arraycopy(other.latencies, 0, merged, latencies.length, other.latencies.length);
+            return new Result(merged, requests + other.requests, errors + other.errors,
+                    throttled + other.throttled);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
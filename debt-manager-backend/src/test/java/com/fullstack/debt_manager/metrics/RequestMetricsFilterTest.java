@@ -0,0 +1,93 @@
+package com.fullstack.debt_manager.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static com.fullstack.debt_manager.support.TestUsers.user;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.repository.ExpenseRepository;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@H2JpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.stats.factory=com.fullstack.debt_manager.metrics.QueryCountingStatistics$Factory"
+})
+class RequestMetricsFilterTest {
+
+    private static final int EXPENSE_COUNT = 10;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        User[] users = new User[EXPENSE_COUNT];
+        for (int i = 0; i < EXPENSE_COUNT; i++) {
+            users[i] = entityManager.persist(user("user" + i));
+        }
+        for (int i = 0; i < EXPENSE_COUNT; i++) {
+            Expense expense = new Expense();
+            expense.setDescription("Expense " + i);
+            expense.setAmount(BigDecimal.TEN);
+            expense.setCreator(users[i]);
+            expense.setDebtor(users[(i + 1) % EXPENSE_COUNT]);
+            entityManager.persist(expense);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void recordsLazyLoadingPerRequestAndFlagsBudgetOverrun() throws Exception {
+        RequestMetricsFilter filter = new RequestMetricsFilter(registry, 5);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/expenses");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/expenses");
+            // N+1: one query for the expenses, then one per distinct lazy creator
+            List<Expense> expenses = expenseRepository.findAll();
+            expenses.forEach(expense -> expense.getCreator().getUsername());
+        });
+
+        assertThat(summary("request.jdbc.statements").totalAmount()).isEqualTo(1 + EXPENSE_COUNT);
+        assertThat(summary("request.jdbc.rows").totalAmount()).isEqualTo(EXPENSE_COUNT);
+        assertThat(summary("request.entities.loaded").totalAmount()).isEqualTo(2 * EXPENSE_COUNT);
+        assertThat(registry.get("request.jdbc.budget.exceeded").tag("uri", "/expenses").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void ignoresQueriesOutsideARequest() throws Exception {
+        RequestMetricsFilter filter = new RequestMetricsFilter(registry, 5);
+        expenseRepository.findAll();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/users/me"), new MockHttpServletResponse(),
+                (req, res) -> { });
+
+        assertThat(summary("request.jdbc.statements").totalAmount()).isZero();
+        assertThat(registry.find("request.jdbc.budget.exceeded").counter()).isNull();
+    }
+
+    private DistributionSummary summary(String name) {
+        return registry.get(name).summary();
+    }
+}
@@ -0,0 +1,300 @@
+package com.fullstack.debt_manager.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.fullstack.debt_manager.dto.ExpenseCursor;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.Tombstone;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.service.ExpenseService;
+import com.fullstack.debt_manager.support.EmbeddedMariaDb;
+
+import ch.vorburger.mariadb4j.DB;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Runs every repository query against an embedded MariaDB built from the Flyway migrations
+ * plus a seeded fixture, then EXPLAINs the exact SQL and bind values Hibernate sent. Fails
+ * when any table in a plan is read with a full table or full index scan.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.locations=classpath:db/migration,classpath:db/query-plan-fixture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanTest.ProxiedMariaDb.class)
+class QueryPlanTest {
+
+    private static final Set<String> FULL_SCANS = Set.of("ALL", "index");
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CapturedQueries capturedQueries;
+
+    private final Set<String> checked = new HashSet<>();
+
+    private User user;
+    private User other;
+    private User customer;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.find(User.class, 42L);
+        other = entityManager.find(User.class, 1337L);
+        // the fixture gives user n customers n + 37k + 1 (mod 2000)
+        customer = entityManager.find(User.class, 80L);
+    }
+
+    @Test
+    void expenseQueriesUseIndexes() {
+        LocalDateTime createdAt = ExpenseCursor.START.getCreatedAt();
+        Long id = ExpenseCursor.START.getId();
+        PageRequest page = PageRequest.ofSize(51);
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+        assertPlan("findWithPartiesById", () -> expenseRepository.findWithPartiesById(500L));
+        assertPlan("findByIdForUpdate", () -> expenseRepository.findByIdForUpdate(500L));
+        assertPlan("findCreatedSeek", () -> expenseRepository.findCreatedSeek(user, createdAt, id, page));
+        assertPlan("findDebtsSeek", () -> expenseRepository.findDebtsSeek(user, createdAt, id, page));
+        assertPlan("findAllExpensesForUserSeek",
+                () -> expenseRepository.findAllExpensesForUserSeek(user, createdAt, id, page));
+        assertPlan("findExpensesBetweenUsersSeek",
+                () -> expenseRepository.findExpensesBetweenUsersSeek(user, other, createdAt, id, page));
+        assertPlan("sumByPairInvolving",
+                () -> expenseRepository.sumByPairInvolving(ExpenseStatus.OUTSTANDING, user.getId()));
+        assertPlan("streamForExport", () -> {
+            try (Stream<ExpenseRow> rows = expenseRepository.streamForExport(user, now.minusMonths(1), now)) {
+                rows.forEach(row -> entityManager.detach(row.getExpense()));
+            }
+        });
+        assertPlan("summarizeCreated", () -> expenseRepository.summarizeCreated(user, now, now.minusMonths(1)));
+        assertPlan("summarizeDebts", () -> expenseRepository.summarizeDebts(user, now, now.minusMonths(1)));
+        assertPlan("findChangedSince", () -> expenseRepository.findChangedSince(user, now.minusMonths(1), 0L, page));
+        assertPlan("findDueSeek", () -> expenseRepository.findDueSeek(
+                ExpenseStatus.PENDING, now.minusDays(1), 0L, now.plusMinutes(10), PageRequest.ofSize(200)));
+        assertPlan("findDueForUpdate", () -> expenseRepository.findDueForUpdate(
+                List.of(500L, 501L, 502L), ExpenseStatus.PENDING, now));
+        assertPlan("findStatusChangesByIds", () -> expenseRepository.findStatusChangesByIds(
+                user, List.of(41L, 2041L, 4041L), ExpenseStatus.OUTSTANDING));
+        assertPlan("findStatusChangesByDebtor", () -> expenseRepository.findStatusChangesByDebtor(
+                user, other.getId(), List.of(ExpenseStatus.PENDING), PageRequest.ofSize(ExpenseService.MAX_STATUS_UPDATE + 1)));
+
+        assertAllQueriesChecked(ExpenseRepository.class);
+    }
+
+    @Test
+    void customerQueriesUseIndexes() {
+        assertPlan("findByUser", () -> customerRepository.findByUser(user));
+        assertPlan("findByUserAndCustomerUser", () -> customerRepository.findByUserAndCustomerUser(user, customer));
+        assertPlan("existsByUserAndCustomerUser", () -> customerRepository.existsByUserAndCustomerUser(user, customer));
+        assertPlan("findAddedSince", () -> customerRepository.findAddedSince(
+                user, LocalDateTime.of(2023, 1, 1, 0, 0), 0L, PageRequest.ofSize(51)));
+
+        assertAllQueriesChecked(CustomerRepository.class);
+    }
+
+    @Test
+    void userQueriesUseIndexes() {
+        assertPlan("findByUsername", () -> userRepository.findByUsername("user42"));
+        assertPlan("findByEmail", () -> userRepository.findByEmail("user42@example.com"));
+        assertPlan("existsByUsername", () -> userRepository.existsByUsername("user42"));
+        assertPlan("existsByEmail", () -> userRepository.existsByEmail("user42@example.com"));
+        assertPlan("findSearchTermsAfter", () -> userRepository.findSearchTermsAfter(1000L, PageRequest.ofSize(500)));
+        assertPlan("findExistingIds", () -> userRepository.findExistingIds(List.of(1L, 42L, 1337L)));
+
+        assertAllQueriesChecked(UserRepository.class);
+    }
+
+    @Test
+    void balanceQueriesUseIndexes() {
+        assertPlan("findOpenBalancesForUser", () -> balanceRepository.findOpenBalancesForUser(user));
+        assertPlan("findByPair", () -> balanceRepository.findByPair(user.getId(), other.getId()));
+
+        assertAllQueriesChecked(BalanceRepository.class);
+    }
+
+    @Test
+    void tombstoneQueriesUseIndexes() {
+        assertPlan("findSince", () -> tombstoneRepository.findSince(user.getId(), Tombstone.EntityType.EXPENSE,
+                LocalDateTime.of(2024, 3, 1, 0, 0), 0L, PageRequest.ofSize(51)));
+
+        assertAllQueriesChecked(TombstoneRepository.class);
+    }
+
+    @Test
+    void outboxQueriesUseIndexes() {
+        assertPlan("findDueForUpdate", () -> outboxEventRepository.findDueForUpdate(
+                LocalDateTime.of(2024, 6, 1, 0, 0), PageRequest.ofSize(100)));
+
+        assertAllQueriesChecked(OutboxEventRepository.class);
+    }
+
+    @Test
+    void paymentQueriesUseIndexes() {
+        List<Long> expenseIds = List.of(4L, 29998L);
+        assertPlan("findPaidTotals", () -> paymentRepository.findPaidTotals(expenseIds));
+        assertPlan("paidTowards", () -> paymentRepository.paidTowards(29998L));
+        assertPlan("findTail", () -> paymentRepository.findTail(4L, 20000L));
+        assertPlan("findPageByExpense",
+                () -> paymentRepository.findPageByExpense(4L, Long.MAX_VALUE, PageRequest.ofSize(51)));
+        assertPlan("existsByExpenseId", () -> paymentRepository.existsByExpenseId(29998L));
+
+        assertAllQueriesChecked(PaymentRepository.class);
+    }
+
+    private void assertPlan(String method, Runnable query) {
+        entityManager.clear();
+        capturedQueries.clear();
+        query.run();
+        List<QueryInfo> queries = capturedQueries.drain();
+        assertThat(queries).as("SQL issued by %s", method).isNotEmpty();
+        for (QueryInfo info : queries) {
+            for (PlanRow row : explain(info)) {
+                assertThat(FULL_SCANS)
+                        .as("%s scans all of %s (key=%s)%n%s", method, row.table(), row.key(), info.getQuery())
+                        .doesNotContain(row.type());
+            }
+        }
+        checked.add(method);
+    }
+
+    // Every query method a repository declares must be exercised above, so a new query cannot
+    // slip in without a plan check. Modifying statements are keyed lookups by construction.
+    private void assertAllQueriesChecked(Class<?> repository) {
+        Set<String> declared = Arrays.stream(repository.getDeclaredMethods())
+                .filter(method -> !method.isAnnotationPresent(Modifying.class))
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+        assertThat(checked).as("query methods of %s with a plan check", repository.getSimpleName())
+                .containsAll(declared);
+    }
+
+    private List<PlanRow> explain(QueryInfo info) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + info.getQuery())) {
+            if (!info.getParametersList().isEmpty()) {
+                for (ParameterSetOperation operation : info.getParametersList().get(0)) {
+                    operation.getMethod().invoke(statement, operation.getArgs());
+                }
+            }
+            List<PlanRow> rows = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(new PlanRow(resultSet.getString("table"), resultSet.getString("type"),
+                            resultSet.getString("key")));
+                }
+            }
+            return rows;
+        } catch (ReflectiveOperationException | SQLException e) {
+            throw new IllegalStateException("Could not explain " + info.getQuery(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private record PlanRow(String table, String type, String key) {
+    }
+
+    static class CapturedQueries implements QueryExecutionListener {
+        private final List<QueryInfo> queries = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            queryInfoList.stream()
+                    .filter(info -> info.getQuery().stripLeading().regionMatches(true, 0, "select", 0, 6))
+                    .forEach(queries::add);
+        }
+
+        void clear() {
+            queries.clear();
+        }
+
+        List<QueryInfo> drain() {
+            List<QueryInfo> drained = List.copyOf(queries);
+            queries.clear();
+            return drained;
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    @Import(EmbeddedMariaDb.class)
+    static class ProxiedMariaDb {
+
+        @Bean
+        CapturedQueries capturedQueries() {
+            return new CapturedQueries();
+        }
+
+        @Bean
+        DataSource dataSource(DB mariaDb, CapturedQueries capturedQueries) {
+            DriverManagerDataSource target = new DriverManagerDataSource(EmbeddedMariaDb.url(mariaDb), "root", "");
+            return ProxyDataSourceBuilder.create(target).listener(capturedQueries).build();
+        }
+    }
+}
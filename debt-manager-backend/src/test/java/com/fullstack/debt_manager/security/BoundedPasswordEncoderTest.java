@@ -0,0 +1,111 @@
+package com.fullstack.debt_manager.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fullstack.debt_manager.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsWithRetryAfterOnceWorkerAndQueueAreFull() throws Exception {
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(hashing, release), 1, 1, Duration.ofSeconds(3), registry);
+
+        Future<String> running = callers.submit(() -> encoder.encode("first"));
+        hashing.await(5, TimeUnit.SECONDS);
+        Future<String> queued = callers.submit(() -> encoder.encode("second"));
+        awaitQueueSize(1);
+
+        assertThatThrownBy(() -> encoder.matches("third", "hash"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .satisfies(e -> assertThat(((TooManyRequestsException) e).getRetryAfter()).isEqualTo(Duration.ofSeconds(3)));
+        assertThat(registry.get("auth.password.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:second");
+        assertThat(registry.get("auth.password.hash").tag("operation", "encode").timer().count()).isEqualTo(2);
+        assertThat(registry.get("auth.password.queue.wait").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void loginRehashesPasswordsStoredWithALowerStrength() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("secret");
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 4, Duration.ofSeconds(1), registry);
+        AtomicReference<String> stored = new AtomicReference<>(weakHash);
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(username -> User.withUsername(username).password(stored.get()).build());
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService((UserDetails user, String newPassword) -> {
+            stored.set(newPassword);
+            return User.withUserDetails(user).password(newPassword).build();
+        });
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        assertThat(stored.get()).startsWith("$2a$05$");
+        assertThat(encoder.matches("secret", stored.get())).isTrue();
+        assertThat(encoder.upgradeEncoding(stored.get())).isFalse();
+    }
+
+    private void awaitQueueSize(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("auth.password.queue.size").gauge().value() < size && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch hashing, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.fullstack.debt_manager.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.repository.UserRepository;
+import com.fullstack.debt_manager.service.UserDetailsServiceImpl;
+import com.fullstack.debt_manager.support.TestUsers;
+
+class PrincipalCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final PrincipalCache cache = new PrincipalCache(100, Duration.ofMinutes(5), nanos::get);
+    private final Date issuedAt = new Date(1_700_000_000_000L);
+
+    @Test
+    void aTokenSeenBeforeIsServedWithoutALookup() {
+        UserDetails first = cache.get("alice", issuedAt, this::load);
+        UserDetails second = cache.get("alice", issuedAt, this::load);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+
+        // another token for the same user is a separate entry
+        cache.get("alice", new Date(issuedAt.getTime() + 1000), this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void entriesAreLookedUpAgainOnceTheTtlHasPassed() {
+        cache.get("alice", issuedAt, this::load);
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(4));
+        cache.get("alice", issuedAt, this::load);
+        assertThat(loads).hasValue(1);
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        cache.get("alice", issuedAt, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void aPasswordChangeDropsEveryCachedTokenOfThatUser() {
+        User alice = user("alice", "old-hash");
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(userRepository, cache);
+
+        cache.get("alice", issuedAt, userDetailsService::loadUserByUsername);
+        cache.get("alice", new Date(issuedAt.getTime() + 1000), userDetailsService::loadUserByUsername);
+        cache.get("bob", issuedAt, this::load);
+
+        userDetailsService.updatePassword(alice, "new-hash");
+
+        assertThat(cache.get("alice", issuedAt, username -> user(username, "reloaded")).getPassword())
+                .isEqualTo("reloaded");
+        assertThat(cache.get("alice", new Date(issuedAt.getTime() + 1000), username -> user(username, "reloaded"))
+                .getPassword()).isEqualTo("reloaded");
+        // other users keep their entries
+        cache.get("bob", issuedAt, this::load);
+        assertThat(loads).hasValue(1);
+    }
+
+    private UserDetails load(String username) {
+        loads.incrementAndGet();
+        return user(username, "hash");
+    }
+
+    private static User user(String username, String password) {
+        User user = TestUsers.user(username);
+        user.setPassword(password);
+        return user;
+    }
+}
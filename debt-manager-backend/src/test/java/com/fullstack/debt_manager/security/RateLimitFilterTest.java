@@ -0,0 +1,118 @@
+package com.fullstack.debt_manager.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.debt_manager.entity.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimitPolicy("auth", 10, 2),
+            new RateLimitPolicy("search", 30, 1),
+            new RateLimitPolicy("read", 60, 3),
+            new RateLimitPolicy("write", 60, 1),
+            Duration.ofMinutes(10), 1000, new ObjectMapper(), registry, clock::get);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsOnceTheBurstIsSpentAndRefillsAtTheRate() throws Exception {
+        authenticate(1L);
+
+        assertThat(statuses("GET", "/expenses", 3)).containsOnly(200);
+        MockHttpServletResponse rejected = call("GET", "/expenses");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("\"success\":false", "Rate limit exceeded");
+        assertThat(registry.get("rate.limit.rejected").tag("policy", "read").counter().count()).isEqualTo(1);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(call("GET", "/expenses").getStatus()).isEqualTo(200);
+        assertThat(call("GET", "/expenses").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void routesAndUsersHaveSeparateBudgets() throws Exception {
+        authenticate(1L);
+        assertThat(call("POST", "/expenses").getStatus()).isEqualTo(200);
+        assertThat(call("DELETE", "/expenses/5").getStatus()).isEqualTo(429);
+        assertThat(call("GET", "/users/search").getStatus()).isEqualTo(200);
+        assertThat(call("GET", "/users/search").getStatus()).isEqualTo(429);
+        assertThat(call("GET", "/expenses").getStatus()).isEqualTo(200);
+
+        authenticate(2L);
+        assertThat(call("POST", "/expenses").getStatus()).isEqualTo(200);
+        assertThat(call("GET", "/users/search").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void authEndpointsAreLimitedPerAddress() throws Exception {
+        authenticate(1L);
+        assertThat(statuses("POST", "/auth/login", 2)).containsOnly(200);
+        MockHttpServletResponse rejected = call("POST", "/auth/login");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("6");
+
+        authenticate(2L);
+        assertThat(call("POST", "/auth/login").getStatus()).isEqualTo(429);
+        MockHttpServletRequest otherAddress = request("POST", "/auth/login");
+        otherAddress.setRemoteAddr("10.0.0.2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(otherAddress, response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void actuatorIsNotLimited() throws Exception {
+        assertThat(statuses("GET", "/actuator/prometheus", 20)).containsOnly(200);
+    }
+
+    private List<Integer> statuses(String method, String path, int count) throws Exception {
+        Integer[] statuses = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            statuses[i] = call(method, path).getStatus();
+        }
+        return List.of(statuses);
+    }
+
+    private MockHttpServletResponse call(String method, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api" + path);
+        request.setContextPath("/api");
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    private static void authenticate(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
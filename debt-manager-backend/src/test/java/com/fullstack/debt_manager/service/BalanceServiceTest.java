@@ -0,0 +1,140 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static com.fullstack.debt_manager.support.TestUsers.user;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fullstack.debt_manager.dto.ExpenseDto;
+import com.fullstack.debt_manager.dto.ExpenseRequest;
+import com.fullstack.debt_manager.entity.Balance;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.repository.BalanceRepository;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+@H2JpaTest
+@Import({ExpenseService.class, UserService.class, UserSearchIndex.class, BalanceService.class,
+        BCryptPasswordEncoder.class})
+class BalanceServiceTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    // persisted in this order, so low < high < third
+    private User low;
+    private User high;
+    private User third;
+
+    @BeforeEach
+    void setUp() {
+        low = entityManager.persist(user("low"));
+        high = entityManager.persist(user("high"));
+        third = entityManager.persist(user("third"));
+        entityManager.flush();
+    }
+
+    @Test
+    void followsAnExpenseThroughEveryChange() {
+        ExpenseDto expense = expenseService.createExpense(request(high, "30.00", null), low);
+        assertBalance(low, high, "30.00");
+
+        expenseService.updateExpense(expense.getId(), request(high, "50.00", null), low);
+        assertBalance(low, high, "50.00");
+
+        expenseService.updateExpense(expense.getId(), request(high, "50.00", ExpenseStatus.PAID), low);
+        assertBalance(low, high, "0");
+
+        expenseService.updateExpense(expense.getId(), request(high, "50.00", ExpenseStatus.PENDING), low);
+        assertBalance(low, high, "50.00");
+
+        expenseService.deleteExpense(expense.getId(), low);
+        assertBalance(low, high, "0");
+    }
+
+    @Test
+    void movesTheDebtWhenTheDebtorChanges() {
+        ExpenseDto expense = expenseService.createExpense(request(high, "40.00", null), low);
+
+        expenseService.updateExpense(expense.getId(), request(third, "40.00", null), low);
+
+        assertBalance(low, high, "0");
+        assertBalance(low, third, "40.00");
+    }
+
+    @Test
+    void storesEachPairOnceLowIdFirstWithTheSignFollowingWhoOwesWhom() {
+        // the lower id owes the higher one, which the row records as a negative amount
+        expenseService.createExpense(request(low, "25.00", null), high);
+        entityManager.clear();
+
+        Balance balance = balanceRepository.findByPair(low.getId(), high.getId()).orElseThrow();
+        assertThat(balance.getAmount()).isEqualByComparingTo("-25.00");
+        assertThat(balanceRepository.findByPair(high.getId(), low.getId())).isEmpty();
+        assertBalance(high, low, "25.00");
+        assertBalance(low, high, "-25.00");
+
+        // debts in both directions net out on the one row
+        expenseService.createExpense(request(high, "10.00", null), low);
+        assertBalance(high, low, "15.00");
+        assertThat(balanceRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void nettedDeltasAreAppliedPerPair() {
+        balanceService.apply(List.of(), List.of(
+                new LedgerEntry(high.getId(), low.getId(), new BigDecimal("10.00")),
+                new LedgerEntry(low.getId(), high.getId(), new BigDecimal("4.00")),
+                new LedgerEntry(third.getId(), low.getId(), new BigDecimal("7.00"))));
+
+        assertBalance(high, low, "6.00");
+        assertBalance(third, low, "7.00");
+        assertBalance(third, high, "0");
+    }
+
+    @Test
+    void aFullReversalReturnsTheBalanceToZero() {
+        LedgerEntry entry = new LedgerEntry(low.getId(), high.getId(), new BigDecimal("12.34"));
+        balanceService.apply(null, entry);
+        assertBalance(low, high, "12.34");
+
+        // removing and re-adding the same contribution nets to no change
+        balanceService.apply(List.of(entry), List.of(entry));
+        balanceService.apply(entry, null);
+
+        assertBalance(low, high, "0");
+        assertThat(balanceService.getBalances(low)).isEmpty();
+    }
+
+    private void assertBalance(User user, User counterparty, String expected) {
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(balanceService.getBalance(user, counterparty.getId()).getAmount()).isEqualByComparingTo(expected);
+    }
+
+    private static ExpenseRequest request(User debtor, String amount, ExpenseStatus status) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setDescription("Dinner");
+        request.setAmount(new BigDecimal(amount));
+        request.setDebtorId(debtor.getId());
+        request.setStatus(status);
+        return request;
+    }
+}
@@ -0,0 +1,153 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static com.fullstack.debt_manager.support.TestUsers.user;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fullstack.debt_manager.dto.ChangePage;
+import com.fullstack.debt_manager.dto.ExpenseDto;
+import com.fullstack.debt_manager.dto.ExpenseRequest;
+import com.fullstack.debt_manager.dto.SyncCursor;
+import com.fullstack.debt_manager.dto.UserDto;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+@H2JpaTest(properties = {
+        "sync.settle-window=0s"
+})
+@Import({ChangeFeedService.class, ExpenseService.class, CustomerService.class, UserService.class,
+        UserSearchIndex.class, BalanceService.class, BCryptPasswordEncoder.class})
+class ChangeFeedServiceTest {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User creator;
+    private User debtor;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        creator = entityManager.persist(user("creator"));
+        debtor = entityManager.persist(user("debtor"));
+        other = entityManager.persist(user("other"));
+        entityManager.flush();
+    }
+
+    @Test
+    void returnsOnlyChangesAfterTheCursorAndTombstonesForDeletes() {
+        ExpenseDto lunch = expenseService.createExpense(request("Lunch", debtor.getId()), creator);
+        ExpenseDto taxi = expenseService.createExpense(request("Taxi", debtor.getId()), creator);
+
+        ChangePage<ExpenseDto> initial = changeFeedService.getExpenseChanges(creator, null, 50);
+        assertThat(initial.getItems()).extracting(ExpenseDto::getId).containsExactly(lunch.getId(), taxi.getId());
+        assertThat(initial.isHasMore()).isFalse();
+
+        assertThat(changeFeedService.getExpenseChanges(creator, initial.getNextCursor(), 50).getItems()).isEmpty();
+
+        expenseService.updateExpense(lunch.getId(), request("Lunch for two", debtor.getId()), creator);
+        expenseService.deleteExpense(taxi.getId(), creator);
+        entityManager.flush();
+
+        ChangePage<ExpenseDto> delta = changeFeedService.getExpenseChanges(creator, initial.getNextCursor(), 50);
+        assertThat(delta.getItems()).extracting(ExpenseDto::getDescription).containsExactly("Lunch for two");
+        assertThat(delta.getRemoved()).containsExactly(taxi.getId());
+
+        // The debtor saw both expenses from the start, so they get the same tombstone
+        assertThat(changeFeedService.getExpenseChanges(debtor, null, 50).getItems())
+                .extracting(ExpenseDto::getId).containsExactly(lunch.getId());
+    }
+
+    @Test
+    void movingAnExpenseToAnotherDebtorRemovesItFromThePreviousOne() {
+        ExpenseDto lunch = expenseService.createExpense(request("Lunch", debtor.getId()), creator);
+        String debtorCursor = changeFeedService.getExpenseChanges(debtor, null, 50).getNextCursor();
+        String otherCursor = changeFeedService.getExpenseChanges(other, null, 50).getNextCursor();
+
+        expenseService.updateExpense(lunch.getId(), request("Lunch", other.getId()), creator);
+        entityManager.flush();
+
+        ChangePage<ExpenseDto> previousDebtor = changeFeedService.getExpenseChanges(debtor, debtorCursor, 50);
+        assertThat(previousDebtor.getItems()).isEmpty();
+        assertThat(previousDebtor.getRemoved()).containsExactly(lunch.getId());
+
+        ChangePage<ExpenseDto> newDebtor = changeFeedService.getExpenseChanges(other, otherCursor, 50);
+        assertThat(newDebtor.getItems()).extracting(ExpenseDto::getId).containsExactly(lunch.getId());
+        assertThat(newDebtor.getRemoved()).isEmpty();
+    }
+
+    @Test
+    void pagesThroughEveryChangeOnce() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            created.add(expenseService.createExpense(request("Expense " + i, debtor.getId()), creator).getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        ChangePage<ExpenseDto> page;
+        do {
+            page = changeFeedService.getExpenseChanges(creator, cursor, 3);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+
+        assertThat(seen).containsExactlyElementsOf(created);
+    }
+
+    @Test
+    void customerFeedDropsTombstonesForCustomersAddedBack() {
+        customerService.addCustomer(debtor.getId(), creator);
+        customerService.addCustomer(other.getId(), creator);
+        entityManager.flush();
+        String cursor = changeFeedService.getCustomerChanges(creator, null, 50).getNextCursor();
+
+        customerService.removeCustomer(debtor.getId(), creator);
+        customerService.removeCustomer(other.getId(), creator);
+        entityManager.flush();
+        customerService.addCustomer(other.getId(), creator);
+        entityManager.flush();
+
+        ChangePage<UserDto> delta = changeFeedService.getCustomerChanges(creator, cursor, 50);
+        assertThat(delta.getItems()).extracting(UserDto::getId).containsExactly(other.getId());
+        assertThat(delta.getRemoved()).containsExactly(debtor.getId());
+    }
+
+    @Test
+    void rejectsCursorsOlderThanTheTombstoneRetention() {
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(90);
+        String stale = new SyncCursor(longAgo, 1L, longAgo, 1L).encode();
+
+        assertThatThrownBy(() -> changeFeedService.getExpenseChanges(creator, stale, 50))
+                .hasMessageContaining("expired");
+    }
+
+    private static ExpenseRequest request(String description, Long debtorId) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setDescription(description);
+        request.setAmount(new BigDecimal("10.00"));
+        request.setDebtorId(debtorId);
+        return request;
+    }
+}
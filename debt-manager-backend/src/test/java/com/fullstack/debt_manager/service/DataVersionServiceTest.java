@@ -0,0 +1,116 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fullstack.debt_manager.config.ReplicaRoutingDataSource;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.CustomerChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DataVersionServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private DataVersionService versions;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = database("versions");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        versions = new DataVersionService(jdbcTemplate, transactionManager);
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void bumpsEveryAffectedUserOncePerTransaction() {
+        transaction.executeWithoutResult(status -> {
+            for (long id = 1; id <= 100; id++) {
+                versions.onExpenseChanged(ExpenseChangedEvent.created(id, 1L, 2L));
+            }
+            versions.onExpenseChanged(ExpenseChangedEvent.updated(7L, 1L, 3L, 2L));
+            // Nothing is written until the transaction commits
+            assertThat(versions.getVersion(1L)).isZero();
+        });
+
+        assertThat(versions.getVersion(1L)).isEqualTo(1);
+        assertThat(versions.getVersion(2L)).isEqualTo(1);
+        assertThat(versions.getVersion(3L)).isEqualTo(1);
+        assertThat(versions.getVersion(4L)).isZero();
+    }
+
+    @Test
+    void rolledBackChangesLeaveVersionsAlone() {
+        transaction.executeWithoutResult(status -> {
+            versions.onCustomerChanged(CustomerChangedEvent.added(1L, 2L));
+            status.setRollbackOnly();
+        });
+
+        assertThat(versions.getVersion(1L)).isZero();
+    }
+
+    @Test
+    void changesMadeOnOneInstanceAreSeenByAnother() {
+        DataVersionService otherInstance = new DataVersionService(jdbcTemplate, transactionManager);
+        String etag = otherInstance.current(user(1L)).etag();
+
+        transaction.executeWithoutResult(status -> versions.onCustomerChanged(CustomerChangedEvent.added(1L, 2L)));
+
+        assertThat(otherInstance.current(user(1L)).etag()).isNotEqualTo(etag).isEqualTo("\"1-1\"");
+        assertThat(otherInstance.getVersion(2L)).isZero();
+    }
+
+    @Test
+    void readsFromAReplicaOnlyOnceItHasCaughtUpWithTheUser() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica),
+                Duration.ofSeconds(5), Duration.ZERO, new SimpleMeterRegistry());
+        JdbcTemplate routed = new JdbcTemplate(routing);
+        DataVersionService routedVersions = new DataVersionService(routed, new DataSourceTransactionManager(routing));
+        new JdbcTemplate(primary).update("INSERT INTO user_versions VALUES (1, 2)");
+        new JdbcTemplate(replica).update("INSERT INTO user_versions VALUES (1, 1)");
+
+        DataVersionService.Version version = routedVersions.current(user(1L));
+        assertThat(version.value()).isEqualTo(2);
+        assertThat(routedVersions.readAtLeast(version, () -> node(routed))).isEqualTo("primary");
+
+        new JdbcTemplate(replica).update("UPDATE user_versions SET version = 2");
+        assertThat(routedVersions.readAtLeast(version, () -> node(routed))).isEqualTo("replica");
+    }
+
+    private static String node(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE user_versions (user_id bigint PRIMARY KEY, version bigint NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE node (name varchar(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,205 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static com.fullstack.debt_manager.support.TestUsers.user;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseDueDateChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseReminderEvent;
+import com.fullstack.debt_manager.repository.ExpenseRepository;
+import com.fullstack.debt_manager.repository.UserRepository;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@H2JpaTest
+@Import(DueDateSchedulerTest.Config.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DueDateSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RecordingListener listener;
+
+    private final MutableClock clock = new MutableClock(NOW.toInstant(ZoneOffset.UTC));
+    private DueDateScheduler scheduler;
+    private User creator;
+    private User debtor;
+
+    @BeforeEach
+    void setUp() {
+        expenseRepository.deleteAll();
+        userRepository.deleteAll();
+        listener.changes.clear();
+        listener.reminders.clear();
+        creator = userRepository.save(user("creator"));
+        debtor = userRepository.save(user("debtor"));
+        scheduler = new DueDateScheduler(expenseRepository, eventPublisher, transactionManager,
+                new SimpleMeterRegistry(), clock, Duration.ofSeconds(1), Duration.ofMinutes(10), Duration.ofHours(1), 2);
+    }
+
+    @Test
+    void catchesUpOnEverythingThatCameDueWhileDown() {
+        List<Long> late = List.of(
+                expense(ExpenseStatus.PENDING, NOW.minusDays(30)),
+                expense(ExpenseStatus.PENDING, NOW.minusDays(2)),
+                expense(ExpenseStatus.PENDING, NOW.minusMinutes(1)),
+                expense(ExpenseStatus.PENDING, NOW.minusMinutes(1)),
+                expense(ExpenseStatus.PENDING, NOW.minusSeconds(1)));
+        Long paid = expense(ExpenseStatus.PAID, NOW.minusDays(2));
+        Long nextWeek = expense(ExpenseStatus.PENDING, NOW.plusDays(7));
+
+        scheduler.tick();
+
+        assertThat(expenseRepository.findAllById(late)).extracting(Expense::getStatus).containsOnly(ExpenseStatus.OVERDUE);
+        assertThat(status(paid)).isEqualTo(ExpenseStatus.PAID);
+        assertThat(status(nextWeek)).isEqualTo(ExpenseStatus.PENDING);
+        assertThat(listener.changes).extracting(ExpenseChangedEvent::expenseId).containsExactlyInAnyOrderElementsOf(late);
+        assertThat(listener.reminders).isEmpty();
+        // Overdue is still owed
+        Expense overdue = expenseRepository.findWithPartiesById(late.get(0)).orElseThrow();
+        assertThat(LedgerEntry.of(overdue)).isNotNull();
+    }
+
+    @Test
+    void remindsOnceAndMarksOverdueFromTheWheel() {
+        Long dueSoon = expense(ExpenseStatus.PENDING, NOW.plusMinutes(5));
+        Long dueLater = expense(ExpenseStatus.PENDING, NOW.plusMinutes(70));
+
+        scheduler.tick();
+        assertThat(listener.reminders).extracting(ExpenseReminderEvent::expenseId).containsExactly(dueSoon);
+        assertThat(scheduler.getScheduledCount()).isEqualTo(2);
+
+        clock.advance(Duration.ofMinutes(6));
+        scheduler.tick();
+        assertThat(status(dueSoon)).isEqualTo(ExpenseStatus.OVERDUE);
+        assertThat(listener.reminders).hasSize(1);
+
+        // An hour before it is due
+        clock.advance(Duration.ofMinutes(6));
+        scheduler.tick();
+        assertThat(listener.reminders).extracting(ExpenseReminderEvent::expenseId).containsExactly(dueSoon, dueLater);
+
+        clock.advance(Duration.ofMinutes(1));
+        scheduler.tick();
+        assertThat(listener.reminders).hasSize(2);
+        assertThat(status(dueLater)).isEqualTo(ExpenseStatus.PENDING);
+    }
+
+    @Test
+    void schedulesDueDatesSavedInsideTheLoadedWindow() {
+        scheduler.tick();
+        Long added = expense(ExpenseStatus.PENDING, NOW.plusMinutes(3));
+        // Delivered after commit when the scheduler is a bean
+        scheduler.onDueDateChanged(new ExpenseDueDateChangedEvent(added, NOW.plusMinutes(3)));
+
+        clock.advance(Duration.ofMinutes(4));
+        scheduler.tick();
+
+        assertThat(status(added)).isEqualTo(ExpenseStatus.OVERDUE);
+    }
+
+    private Long expense(ExpenseStatus status, LocalDateTime dueDate) {
+        Expense expense = new Expense();
+        expense.setDescription("Expense");
+        expense.setAmount(new BigDecimal("10.00"));
+        expense.setCreator(creator);
+        expense.setDebtor(debtor);
+        expense.setStatus(status);
+        expense.setDueDate(dueDate);
+        return expenseRepository.save(expense).getId();
+    }
+
+    private ExpenseStatus status(Long expenseId) {
+        return expenseRepository.findById(expenseId).orElseThrow().getStatus();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    static class RecordingListener {
+        final List<ExpenseChangedEvent> changes = new CopyOnWriteArrayList<>();
+        final List<ExpenseReminderEvent> reminders = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void onExpenseChanged(ExpenseChangedEvent event) {
+            changes.add(event);
+        }
+
+        @EventListener
+        public void onExpenseReminder(ExpenseReminderEvent event) {
+            reminders.add(event);
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Config {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.debt_manager.controller.EventStreamController;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.CustomerChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EventStreamHubTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(.+)$", Pattern.MULTILINE);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private EventStreamHub hub;
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deliversChangesToEveryAffectedUserOnly() throws Exception {
+        start(Runnable::run, 32);
+        MockHttpServletResponse creator = connect(1L, null);
+        MockHttpServletResponse debtor = connect(2L, null);
+        MockHttpServletResponse bystander = connect(3L, null);
+
+        hub.onExpenseChanged(ExpenseChangedEvent.created(10L, 1L, 2L));
+        hub.onCustomerChanged(CustomerChangedEvent.added(1L, 3L));
+
+        assertThat(creator.getContentAsString())
+                .contains("event:expense\ndata:{\"change\":\"CREATED\",\"id\":10}")
+                .contains("event:customer\ndata:{\"change\":\"ADDED\",\"id\":3}");
+        assertThat(debtor.getContentAsString()).contains("event:expense").doesNotContain("event:customer");
+        assertThat(bystander.getContentAsString()).contains("event:customer").doesNotContain("event:expense");
+        assertThat(hub.getSubscriberCount()).isEqualTo(3);
+    }
+
+    @Test
+    void resumesAfterLastEventId() throws Exception {
+        start(Runnable::run, 32);
+        MockHttpServletResponse first = connect(1L, null);
+        hub.onExpenseChanged(ExpenseChangedEvent.created(10L, 1L, 2L));
+        String lastEventId = eventIds(first).get(0);
+
+        hub.onExpenseChanged(ExpenseChangedEvent.created(11L, 1L, 2L));
+        hub.onExpenseChanged(ExpenseChangedEvent.deleted(10L, 1L, 2L));
+
+        MockHttpServletResponse resumed = connect(1L, lastEventId);
+        assertThat(resumed.getContentAsString())
+                .doesNotContain("\"change\":\"CREATED\",\"id\":10")
+                .contains("\"change\":\"CREATED\",\"id\":11")
+                .contains("\"change\":\"DELETED\",\"id\":10");
+        assertThat(eventIds(resumed)).doesNotContain(lastEventId).hasSize(2);
+    }
+
+    @Test
+    void asksForResyncWhenMissedEventsAreGone() throws Exception {
+        start(Runnable::run, 32);
+
+        assertThat(connect(1L, "earlier-instance-42").getContentAsString()).contains("event:resync");
+
+        hub.onExpenseChanged(ExpenseChangedEvent.created(10L, 1L, 2L));
+        MockHttpServletResponse first = connect(2L, null);
+        hub.onExpenseChanged(ExpenseChangedEvent.created(11L, 1L, 2L));
+        String lastEventId = eventIds(first).get(0);
+        for (long id = 12; id < 12 + 5; id++) {
+            hub.onExpenseChanged(ExpenseChangedEvent.created(id, 1L, 2L));
+        }
+
+        // Only the last three events per user are kept
+        assertThat(connect(2L, lastEventId).getContentAsString()).contains("event:resync");
+    }
+
+    @Test
+    void dropsSubscribersThatFallBehind() throws Exception {
+        List<Runnable> neverRun = new ArrayList<>();
+        start(neverRun::add, 2);
+        connect(1L, null);
+
+        hub.onExpenseChanged(ExpenseChangedEvent.created(10L, 1L, 2L));
+        assertThat(hub.getSubscriberCount()).isEqualTo(1);
+        hub.onExpenseChanged(ExpenseChangedEvent.created(11L, 1L, 2L));
+
+        assertThat(hub.getSubscriberCount()).isZero();
+        assertThat(registry.get("events.stream.dropped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void heartbeatsReachIdleSubscribers() throws Exception {
+        start(Runnable::run, 32);
+        MockHttpServletResponse idle = connect(1L, null);
+
+        hub.heartbeat();
+
+        assertThat(idle.getContentAsString()).contains(":ping\n\n");
+    }
+
+    private void start(Executor senders, int bufferSize) {
+        hub = new EventStreamHub(senders, new ObjectMapper(), registry, Duration.ofMinutes(30), Duration.ofSeconds(5),
+                bufferSize, 3, Duration.ofMinutes(10));
+        mockMvc = MockMvcBuilders.standaloneSetup(new EventStreamController(hub))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+    }
+
+    private MockHttpServletResponse connect(Long userId, String lastEventId) throws Exception {
+        User user = new User();
+        user.setId(userId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+        MockHttpServletRequestBuilder builder = get("/events");
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+    }
+
+    private static List<String> eventIds(MockHttpServletResponse response) throws Exception {
+        Matcher matcher = EVENT_ID.matcher(response.getContentAsString());
+        List<String> ids = new ArrayList<>();
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        return ids;
+    }
+}
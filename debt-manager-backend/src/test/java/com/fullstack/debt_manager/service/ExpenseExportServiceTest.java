@@ -0,0 +1,165 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static com.fullstack.debt_manager.support.TestUsers.user;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fullstack.debt_manager.dto.ExportFormat;
+import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.Payment;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.support.EmbeddedMariaDb;
+
+import ch.vorburger.mariadb4j.DB;
+
+/**
+ * Runs on MariaDB with the MySQL driver, so the export streams exactly as in production and
+ * fails if anything else queries the connection while the result set is open.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ExpenseExportService.class, ExpenseService.class, UserService.class, UserSearchIndex.class,
+        BalanceService.class, BCryptPasswordEncoder.class, ExpenseExportServiceTest.Config.class})
+class ExpenseExportServiceTest {
+
+    @Autowired
+    private ExpenseExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User alice;
+    private Long lunch;
+    private Long taxi;
+    private Long rent;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(user("alice"));
+        User bob = entityManager.persist(user("bob"));
+        User carol = entityManager.persist(user("carol"));
+        lunch = expense(alice, bob, "Lunch, \"the usual\"", "12.50", LocalDateTime.of(2024, 1, 31, 23, 59));
+        taxi = expense(carol, alice, "Taxi", "30.00", LocalDateTime.of(2024, 2, 1, 0, 0));
+        rent = expense(alice, bob, "Rent", "800.00", LocalDateTime.of(2024, 2, 29, 23, 59, 59));
+        expense(alice, carol, "Concert", "45.00", LocalDateTime.of(2024, 3, 1, 0, 0));
+        expense(bob, carol, "Not alice's", "5.00", LocalDateTime.of(2024, 2, 10, 12, 0));
+
+        Payment payment = new Payment();
+        payment.setExpense(entityManager.find(Expense.class, rent));
+        payment.setAmount(new BigDecimal("300.00"));
+        payment.setRecordedBy(bob);
+        entityManager.persist(payment);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void csvHasOneQuotedRowPerExpenseNewestFirst() throws IOException {
+        List<String> lines = export(null, null, ExportFormat.CSV);
+
+        assertThat(lines.get(0)).isEqualTo("id,description,amount,status,creator_id,creator_username," +
+                "debtor_id,debtor_username,created_at,updated_at,due_date,notes,paid,remaining");
+        assertThat(lines).hasSize(5);
+        assertThat(lines.get(2)).startsWith(rent + ",Rent,800.00,PENDING,")
+                .endsWith(",300.00,500.00");
+        assertThat(lines.get(4)).startsWith(lunch + ",\"Lunch, \"\"the usual\"\"\",12.50,PENDING,")
+                .contains(",2024-01-31T23:59,")
+                .endsWith(",0.00,12.50");
+    }
+
+    @Test
+    void ndjsonHasOneObjectPerLine() throws IOException {
+        List<String> lines = export(null, null, ExportFormat.NDJSON);
+
+        assertThat(lines).hasSize(4);
+        List<Long> ids = new ArrayList<>();
+        for (String line : lines) {
+            ids.add(objectMapper.readTree(line).get("id").asLong());
+        }
+        assertThat(ids).containsExactly(ids.get(0), rent, taxi, lunch);
+
+        JsonNode rentRow = objectMapper.readTree(lines.get(1));
+        assertThat(rentRow.get("debtor").get("username").asText()).isEqualTo("bob");
+        assertThat(rentRow.get("paid").decimalValue()).isEqualByComparingTo("300.00");
+        assertThat(rentRow.get("remaining").decimalValue()).isEqualByComparingTo("500.00");
+    }
+
+    @Test
+    void dateRangeIncludesBothEndDaysWhole() throws IOException {
+        List<String> lines = export(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29), ExportFormat.NDJSON);
+
+        List<Long> ids = new ArrayList<>();
+        for (String line : lines) {
+            ids.add(objectMapper.readTree(line).get("id").asLong());
+        }
+        assertThat(ids).containsExactly(rent, taxi);
+        assertThat(export(LocalDate.of(2025, 1, 1), null, ExportFormat.CSV)).hasSize(1);
+    }
+
+    private List<String> export(LocalDate from, LocalDate to, ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(alice, from, to, format, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private Long expense(User creator, User debtor, String description, String amount, LocalDateTime createdAt) {
+        Expense expense = new Expense();
+        expense.setDescription(description);
+        expense.setAmount(new BigDecimal(amount));
+        expense.setCreator(creator);
+        expense.setDebtor(debtor);
+        expense.setStatus(ExpenseStatus.PENDING);
+        entityManager.persistAndFlush(expense);
+        expense.setCreatedAt(createdAt);
+        return entityManager.persistFlushFind(expense).getId();
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    @Import(EmbeddedMariaDb.class)
+    static class Config {
+
+        @Bean
+        DataSource dataSource(DB mariaDb) {
+            return new DriverManagerDataSource(EmbeddedMariaDb.url(mariaDb), "root", "");
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper()
+                    .findAndRegisterModules()
+                    .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        }
+    }
+}
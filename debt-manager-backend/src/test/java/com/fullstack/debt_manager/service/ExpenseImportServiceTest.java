@@ -0,0 +1,116 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static com.fullstack.debt_manager.support.TestUsers.user;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fullstack.debt_manager.dto.BalanceDto;
+import com.fullstack.debt_manager.dto.BulkExpenseResult;
+import com.fullstack.debt_manager.dto.ExpenseRequest;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.repository.ExpenseRepository;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+@H2JpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({ExpenseImportService.class, UserService.class, UserSearchIndex.class, BalanceService.class,
+        BCryptPasswordEncoder.class})
+class ExpenseImportServiceTest {
+
+    @Autowired
+    private ExpenseImportService importService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User creator;
+    private User debtor;
+
+    @BeforeEach
+    void setUp() {
+        creator = entityManager.persist(user("creator"));
+        debtor = entityManager.persist(user("debtor"));
+        entityManager.flush();
+    }
+
+    @Test
+    void importsValidRowsAndReportsInvalidOnes() {
+        List<BulkExpenseResult> results = importService.importExpenses(List.of(
+                request("Lunch", "12.50", debtor.getId(), null),
+                request("", "5.00", debtor.getId(), null),
+                request("Self", "5.00", creator.getId(), null),
+                request("Ghost", "5.00", 999_999L, null),
+                request("Taxi", "7.50", debtor.getId(), ExpenseStatus.PAID)
+        ), creator);
+
+        assertThat(results).extracting(BulkExpenseResult::isSuccess)
+                .containsExactly(true, false, false, false, true);
+        assertThat(results).extracting(BulkExpenseResult::getRow).containsExactly(1, 2, 3, 4, 5);
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(results.get(3).getError()).isEqualTo("User not found");
+        assertThat(expenseRepository.count()).isEqualTo(2);
+
+        // Only the pending row moves the ledger
+        BalanceDto balance = balanceService.getBalance(creator, debtor.getId());
+        assertThat(balance.getAmount()).isEqualByComparingTo("12.50");
+    }
+
+    @Test
+    void rejectsRowsThatMarkThemselvesOverdue() {
+        List<BulkExpenseResult> results = importService.importExpenses(List.of(
+                request("Late already", "5.00", debtor.getId(), ExpenseStatus.OVERDUE)
+        ), creator);
+
+        assertThat(results.get(0).isSuccess()).isFalse();
+        assertThat(results.get(0).getError()).isEqualTo("OVERDUE is set automatically once the due date passes");
+        assertThat(expenseRepository.count()).isZero();
+    }
+
+    @Test
+    void importsCsvWithQuotedFields() throws Exception {
+        String csv = "description,amount,debtor_id,due_date,notes\n"
+                + "\"Dinner, with \"\"friends\"\"\",30.00," + debtor.getId() + ",2030-01-31,\"line one\nline two\"\n"
+                + "Broken,abc," + debtor.getId() + ",,\n";
+
+        List<BulkExpenseResult> results = importService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), creator);
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).isSuccess()).isTrue();
+        assertThat(results.get(1).isSuccess()).isFalse();
+        assertThat(expenseRepository.findById(results.get(0).getId()))
+                .hasValueSatisfying(expense -> {
+                    assertThat(expense.getDescription()).isEqualTo("Dinner, with \"friends\"");
+                    assertThat(expense.getNotes()).isEqualTo("line one\nline two");
+                });
+    }
+
+    private static ExpenseRequest request(String description, String amount, Long debtorId, ExpenseStatus status) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setDescription(description);
+        request.setAmount(new BigDecimal(amount));
+        request.setDebtorId(debtorId);
+        request.setStatus(status);
+        return request;
+    }
+}
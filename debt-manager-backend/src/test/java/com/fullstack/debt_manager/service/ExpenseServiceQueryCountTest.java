@@ -0,0 +1,99 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static com.fullstack.debt_manager.support.TestUsers.user;
+
+import java.math.BigDecimal;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fullstack.debt_manager.dto.CursorPage;
+import com.fullstack.debt_manager.dto.ExpenseDto;
+import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@H2JpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ExpenseService.class, UserService.class, UserSearchIndex.class, BalanceService.class,
+        BCryptPasswordEncoder.class})
+class ExpenseServiceQueryCountTest {
+
+    private static final int EXPENSE_COUNT = 1000;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User heavyUser;
+    private User otherUser;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        heavyUser = entityManager.persist(user("heavy"));
+        otherUser = entityManager.persist(user("other"));
+        for (int i = 0; i < EXPENSE_COUNT; i++) {
+            Expense expense = new Expense();
+            expense.setDescription("Expense " + i);
+            expense.setAmount(BigDecimal.TEN);
+            expense.setCreator(i % 2 == 0 ? heavyUser : otherUser);
+            expense.setDebtor(i % 2 == 0 ? otherUser : heavyUser);
+            entityManager.persist(expense);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void everyPageOfAllExpensesRunsOneStatement() {
+        int pages = 0;
+        int rows = 0;
+        String cursor = null;
+        do {
+            CursorPage<ExpenseDto> page = expenseService.getAllExpensesForUser(heavyUser, cursor, ExpenseService.MAX_PAGE_SIZE);
+            rows += page.getItems().size();
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(rows).isEqualTo(EXPENSE_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(pages);
+    }
+
+    @Test
+    void createdAndDebtPagesRunOneStatementEach() {
+        expenseService.getCreatedExpenses(heavyUser, null, ExpenseService.MAX_PAGE_SIZE);
+        expenseService.getDebtorExpenses(heavyUser, null, ExpenseService.MAX_PAGE_SIZE);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void betweenUsersPageDoesNotLoadPartiesPerRow() {
+        CursorPage<ExpenseDto> page = expenseService.getExpensesBetweenUsers(
+                heavyUser.getId(), otherUser.getId(), null, ExpenseService.MAX_PAGE_SIZE);
+
+        assertThat(page.getItems()).hasSize(ExpenseService.MAX_PAGE_SIZE);
+        // two user lookups plus the page query itself
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,167 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static com.fullstack.debt_manager.support.TestUsers.user;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fullstack.debt_manager.dto.StatusUpdateRequest;
+import com.fullstack.debt_manager.dto.StatusUpdateResult;
+import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.Payment;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@H2JpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ExpenseService.class, UserService.class, UserSearchIndex.class, BalanceService.class,
+        BCryptPasswordEncoder.class})
+class ExpenseStatusUpdateTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User creator;
+    private User debtor;
+    private User other;
+    private final List<Long> debts = new ArrayList<>();
+    private Long paidDebt;
+    private Long otherDebt;
+    private Long foreignExpense;
+    private LocalDateTime before;
+
+    @BeforeEach
+    void setUp() {
+        creator = entityManager.persist(user("creator"));
+        debtor = entityManager.persist(user("debtor"));
+        other = entityManager.persist(user("other"));
+        for (int i = 0; i < 20; i++) {
+            debts.add(expense(creator, debtor, ExpenseStatus.PENDING));
+        }
+        paidDebt = expense(creator, debtor, ExpenseStatus.PAID);
+        otherDebt = expense(creator, other, ExpenseStatus.PENDING);
+        foreignExpense = expense(other, debtor, ExpenseStatus.PENDING);
+        balanceService.apply(List.of(), List.of(new LedgerEntry(creator.getId(), debtor.getId(), new BigDecimal("200.00"))));
+        entityManager.flush();
+        entityManager.clear();
+        before = LocalDateTime.now();
+    }
+
+    @Test
+    void settlesEveryPendingDebtOfADebtorWithOneUpdate() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        StatusUpdateResult result = expenseService.updateStatuses(
+                request(null, debtor.getId(), ExpenseStatus.PENDING, ExpenseStatus.PAID), creator);
+
+        assertThat(result.getUpdated()).isEqualTo(20);
+        assertThat(result.getPrevious()).isEqualTo(Map.of(ExpenseStatus.PENDING, 20));
+        assertThat(result.isHasMore()).isFalse();
+        // the locking read, the UPDATE and one balance delta
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        entityManager.clear();
+        for (Long id : debts) {
+            Expense expense = entityManager.find(Expense.class, id);
+            assertThat(expense.getStatus()).isEqualTo(ExpenseStatus.PAID);
+            assertThat(expense.getUpdatedAt()).isAfterOrEqualTo(before);
+            assertThat(expense.getPaidAt()).isEqualTo(expense.getUpdatedAt());
+        }
+        assertThat(entityManager.find(Expense.class, otherDebt).getStatus()).isEqualTo(ExpenseStatus.PENDING);
+        assertThat(entityManager.find(Expense.class, foreignExpense).getStatus()).isEqualTo(ExpenseStatus.PENDING);
+        assertThat(balanceService.getBalance(creator, debtor.getId()).getAmount()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void onlyTouchesTheCallersExpensesNotAlreadyInTheTargetStatus() {
+        List<Long> ids = List.of(debts.get(0), debts.get(1), paidDebt, foreignExpense, -1L);
+
+        StatusUpdateResult result = expenseService.updateStatuses(
+                request(ids, null, null, ExpenseStatus.CANCELLED), creator);
+
+        assertThat(result.getUpdated()).isEqualTo(3);
+        assertThat(result.getPrevious()).isEqualTo(Map.of(ExpenseStatus.PENDING, 2, ExpenseStatus.PAID, 1));
+        entityManager.clear();
+        assertThat(entityManager.find(Expense.class, foreignExpense).getStatus()).isEqualTo(ExpenseStatus.PENDING);
+        assertThat(entityManager.find(Expense.class, paidDebt).getStatus()).isEqualTo(ExpenseStatus.CANCELLED);
+        assertThat(entityManager.find(Expense.class, paidDebt).getPaidAt()).isNull();
+        assertThat(balanceService.getBalance(creator, debtor.getId()).getAmount()).isEqualByComparingTo("180.00");
+    }
+
+    @Test
+    void doesNotReopenAnExpensePaidInFull() {
+        Payment payment = new Payment();
+        payment.setExpense(entityManager.find(Expense.class, paidDebt));
+        payment.setAmount(BigDecimal.TEN);
+        payment.setRecordedBy(entityManager.find(User.class, debtor.getId()));
+        entityManager.persist(payment);
+        Long cancelled = expense(creator, debtor, ExpenseStatus.CANCELLED);
+        entityManager.flush();
+        entityManager.clear();
+
+        StatusUpdateResult result = expenseService.updateStatuses(
+                request(List.of(paidDebt, cancelled), null, null, ExpenseStatus.PENDING), creator);
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getPrevious()).isEqualTo(Map.of(ExpenseStatus.CANCELLED, 1));
+        assertThat(result.getSettled()).containsExactly(paidDebt);
+        entityManager.clear();
+        assertThat(entityManager.find(Expense.class, paidDebt).getStatus()).isEqualTo(ExpenseStatus.PAID);
+        assertThat(entityManager.find(Expense.class, cancelled).getStatus()).isEqualTo(ExpenseStatus.PENDING);
+        assertThat(balanceService.getBalance(creator, debtor.getId()).getAmount()).isEqualByComparingTo("210.00");
+    }
+
+    @Test
+    void leavesOverdueToTheScheduler() {
+        assertThatThrownBy(() -> expenseService.updateStatuses(
+                request(debts, null, null, ExpenseStatus.OVERDUE), creator))
+                .hasMessageContaining("OVERDUE");
+    }
+
+    private Long expense(User creator, User debtor, ExpenseStatus status) {
+        Expense expense = new Expense();
+        expense.setDescription("Expense");
+        expense.setAmount(BigDecimal.TEN);
+        expense.setCreator(creator);
+        expense.setDebtor(debtor);
+        expense.setStatus(status);
+        return entityManager.persist(expense).getId();
+    }
+
+    private static StatusUpdateRequest request(List<Long> ids, Long debtorId, ExpenseStatus from, ExpenseStatus to) {
+        StatusUpdateRequest request = new StatusUpdateRequest();
+        request.setIds(ids);
+        request.setDebtorId(debtorId);
+        request.setFromStatus(from);
+        request.setStatus(to);
+        return request;
+    }
+}
@@ -0,0 +1,168 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static com.fullstack.debt_manager.support.TestUsers.user;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fullstack.debt_manager.dto.ExpenseDto;
+import com.fullstack.debt_manager.dto.ExpenseRequest;
+import com.fullstack.debt_manager.dto.ExpenseSummaryDto;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.Payment;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.repository.BalanceRepository;
+import com.fullstack.debt_manager.repository.ExpenseRepository;
+import com.fullstack.debt_manager.repository.PaymentRepository;
+import com.fullstack.debt_manager.repository.UserRepository;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+@H2JpaTest
+@Import({ExpenseSummaryService.class, ExpenseService.class, UserService.class, UserSearchIndex.class,
+        BalanceService.class, BCryptPasswordEncoder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExpenseSummaryServiceTest {
+
+    @Autowired
+    private ExpenseSummaryService summaryService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        expenseRepository.deleteAll();
+        balanceRepository.deleteAll();
+        userRepository.deleteAll();
+        alice = userRepository.save(user("alice"));
+        bob = userRepository.save(user("bob"));
+    }
+
+    @Test
+    void totalsWhatIsStillOwedInEachDirection() {
+        ExpenseDto late = expenseService.createExpense(
+                request(bob, "100.00", ExpenseStatus.PENDING, LocalDateTime.now().minusDays(3)), alice);
+        expenseService.createExpense(request(bob, "50.00", ExpenseStatus.PENDING, LocalDateTime.now().plusDays(3)), alice);
+        expenseService.createExpense(request(bob, "30.00", ExpenseStatus.PAID, null), alice);
+        expenseService.createExpense(request(alice, "40.00", ExpenseStatus.OVERDUE, null), bob);
+        pay(late.getId(), "20.00");
+
+        ExpenseSummaryDto summary = summaryService.getSummary(alice);
+
+        ExpenseSummaryDto.Direction owedToMe = summary.getOwedToMe();
+        assertThat(owedToMe.getPendingAmount()).isEqualByComparingTo("130.00");
+        assertThat(owedToMe.getPendingCount()).isEqualTo(2);
+        // past due but not yet marked OVERDUE still counts as overdue
+        assertThat(owedToMe.getOverdueAmount()).isEqualByComparingTo("80.00");
+        assertThat(owedToMe.getOverdueCount()).isEqualTo(1);
+        // the installment on the late expense plus the one marked PAID
+        assertThat(owedToMe.getPaidThisMonthAmount()).isEqualByComparingTo("50.00");
+        assertThat(owedToMe.getPaidThisMonthCount()).isEqualTo(1);
+
+        ExpenseSummaryDto.Direction owedByMe = summary.getOwedByMe();
+        assertThat(owedByMe.getPendingAmount()).isEqualByComparingTo("40.00");
+        assertThat(owedByMe.getOverdueAmount()).isEqualByComparingTo("40.00");
+        assertThat(owedByMe.getOverdueCount()).isEqualTo(1);
+        assertThat(owedByMe.getPaidThisMonthCount()).isZero();
+    }
+
+    @Test
+    void installmentsCountInTheMonthTheyArePaidAndTheLastOneOnlyOnce() {
+        ExpenseDto dinner = expenseService.createExpense(request(bob, "100.00", ExpenseStatus.PENDING, null), alice);
+        pay(dinner.getId(), "30.00");
+
+        ExpenseSummaryDto.Direction owedToMe = summaryService.getSummary(alice).getOwedToMe();
+        assertThat(owedToMe.getPaidThisMonthAmount()).isEqualByComparingTo("30.00");
+        assertThat(owedToMe.getPaidThisMonthCount()).isZero();
+
+        pay(dinner.getId(), "50.00");
+        // the rest is settled without a payment
+        expenseService.updateExpense(dinner.getId(), request(bob, "100.00", ExpenseStatus.PAID, null), alice);
+
+        owedToMe = summaryService.getSummary(alice).getOwedToMe();
+        assertThat(owedToMe.getPaidThisMonthAmount()).isEqualByComparingTo("100.00");
+        assertThat(owedToMe.getPaidThisMonthCount()).isEqualTo(1);
+        assertThat(summaryService.getSummary(bob).getOwedByMe().getPaidThisMonthAmount()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void editingAnExpensePaidInAnEarlierMonthDoesNotCountItAgain() {
+        ExpenseDto dinner = expenseService.createExpense(request(bob, "30.00", ExpenseStatus.PAID, null), alice);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                expenseRepository.findById(dinner.getId()).orElseThrow().setPaidAt(LocalDateTime.now().minusMonths(2)));
+
+        ExpenseRequest edit = request(bob, "30.00", ExpenseStatus.PAID, null);
+        edit.setNotes("Split with the table next to us");
+        expenseService.updateExpense(dinner.getId(), edit, alice);
+
+        ExpenseSummaryDto.Direction owedToMe = summaryService.getSummary(alice).getOwedToMe();
+        assertThat(owedToMe.getPaidThisMonthAmount()).isEqualByComparingTo("0.00");
+        assertThat(owedToMe.getPaidThisMonthCount()).isZero();
+    }
+
+    @Test
+    void aCommittedChangeEvictsTheSummaryOfBothParties() {
+        ExpenseDto dinner = expenseService.createExpense(request(bob, "10.00", ExpenseStatus.PENDING, null), alice);
+        assertThat(summaryService.getSummary(alice).getOwedToMe().getPendingAmount()).isEqualByComparingTo("10.00");
+        assertThat(summaryService.getSummary(bob).getOwedByMe().getPendingAmount()).isEqualByComparingTo("10.00");
+
+        // a write that publishes no event is not seen until something evicts the entry
+        pay(dinner.getId(), "4.00");
+        assertThat(summaryService.getSummary(alice).getOwedToMe().getPendingAmount()).isEqualByComparingTo("10.00");
+
+        expenseService.createExpense(request(bob, "5.00", ExpenseStatus.PENDING, null), alice);
+
+        assertThat(summaryService.getSummary(alice).getOwedToMe().getPendingAmount()).isEqualByComparingTo("11.00");
+        assertThat(summaryService.getSummary(bob).getOwedByMe().getPendingAmount()).isEqualByComparingTo("11.00");
+    }
+
+    private void pay(Long expenseId, String amount) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Payment payment = new Payment();
+            payment.setExpense(expenseRepository.getReferenceById(expenseId));
+            payment.setAmount(new BigDecimal(amount));
+            payment.setRecordedBy(bob);
+            paymentRepository.save(payment);
+        });
+    }
+
+    private static ExpenseRequest request(User debtor, String amount, ExpenseStatus status, LocalDateTime dueDate) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setDescription("Dinner");
+        request.setAmount(new BigDecimal(amount));
+        request.setDebtorId(debtor.getId());
+        request.setStatus(status);
+        request.setDueDate(dueDate);
+        return request;
+    }
+}
@@ -0,0 +1,196 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.debt_manager.entity.OutboxEvent;
+import com.fullstack.debt_manager.event.CustomerChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseChangedEvent;
+import com.fullstack.debt_manager.event.ExpenseReminderEvent;
+import com.fullstack.debt_manager.event.OutboxDelivery;
+import com.fullstack.debt_manager.repository.OutboxEventRepository;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@H2JpaTest(properties = {
+        "outbox.backoff=0s",
+        "outbox.max-attempts=3"
+})
+@Import({OutboxService.class, OutboxDispatcher.class, OutboxDispatcherTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // Batches are driven by hand below
+        dispatcher.stop();
+        outboxEventRepository.deleteAll();
+        listener.reset();
+    }
+
+    @Test
+    void deliversEventsOnlyOnceTheirTransactionCommits() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ExpenseChangedEvent.created(10L, 1L, 2L));
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(ExpenseChangedEvent.created(11L, 1L, 2L));
+            eventPublisher.publishEvent(CustomerChangedEvent.added(1L, 3L));
+        });
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(2);
+
+        assertThat(listener.expenses).containsExactly(ExpenseChangedEvent.created(11L, 1L, 2L));
+        assertThat(listener.customers).containsExactly(CustomerChangedEvent.added(1L, 3L));
+        assertThat(outboxEventRepository.findAll())
+                .allSatisfy(event -> assertThat(event.getProcessedAt()).isNotNull())
+                .allSatisfy(event -> assertThat(event.getAvailableAt()).isNull());
+        assertThat(dispatcher.dispatchBatch()).isZero();
+    }
+
+    @Test
+    void writesATransactionsEventsTogetherAsItCommits() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long writtenBeforeCommit = transaction.execute(status -> {
+            for (long id = 1; id <= 1200; id++) {
+                eventPublisher.publishEvent(ExpenseChangedEvent.created(id, 1L, 2L));
+            }
+            return outboxEventRepository.count();
+        });
+
+        assertThat(writtenBeforeCommit).isZero();
+        assertThat(outboxEventRepository.count()).isEqualTo(1200);
+        assertThat(outboxEventRepository.findAll())
+                .allSatisfy(event -> assertThat(event.getAvailableAt()).isEqualTo(event.getCreatedAt()));
+    }
+
+    @Test
+    void storesOnlyEventsSomethingConsumes() {
+        write(new ExpenseReminderEvent(10L, 1L, 2L, LocalDateTime.of(2024, 6, 1, 0, 0)));
+
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void retriesFailedDeliveriesUntilTheySucceed() {
+        listener.failures.set(1);
+        write(ExpenseChangedEvent.deleted(10L, 1L, 2L));
+
+        dispatcher.dispatchBatch();
+        OutboxEvent failed = outboxEventRepository.findAll().get(0);
+        assertThat(failed.getProcessedAt()).isNull();
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).contains("handler down");
+
+        dispatcher.dispatchBatch();
+        OutboxEvent delivered = outboxEventRepository.findAll().get(0);
+        assertThat(delivered.getProcessedAt()).isNotNull();
+        assertThat(delivered.getAttempts()).isEqualTo(2);
+        assertThat(delivered.getLastError()).isNull();
+        assertThat(listener.expenses).containsExactly(ExpenseChangedEvent.deleted(10L, 1L, 2L));
+    }
+
+    @Test
+    void parksEventsThatKeepFailing() {
+        listener.failures.set(Integer.MAX_VALUE);
+        write(ExpenseChangedEvent.deleted(10L, 1L, 2L));
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatchBatch();
+        }
+
+        OutboxEvent parked = outboxEventRepository.findAll().get(0);
+        assertThat(parked.getAttempts()).isEqualTo(3);
+        assertThat(parked.getAvailableAt()).isNull();
+        assertThat(parked.getProcessedAt()).isNull();
+        assertThat(meterRegistry.get("outbox.events").tag("result", "parked").counter().count()).isEqualTo(1);
+    }
+
+    private void write(Object event) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> eventPublisher.publishEvent(event));
+    }
+
+    static class RecordingListener {
+        final List<ExpenseChangedEvent> expenses = new CopyOnWriteArrayList<>();
+        final List<CustomerChangedEvent> customers = new CopyOnWriteArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+
+        @EventListener
+        public void onExpense(OutboxDelivery<ExpenseChangedEvent> delivery) {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("handler down");
+            }
+            expenses.add(delivery.event());
+        }
+
+        @EventListener
+        public void onCustomer(OutboxDelivery<CustomerChangedEvent> delivery) {
+            customers.add(delivery.event());
+        }
+
+        void reset() {
+            expenses.clear();
+            customers.clear();
+            failures.set(0);
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Config {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
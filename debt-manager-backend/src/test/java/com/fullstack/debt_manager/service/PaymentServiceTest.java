@@ -0,0 +1,201 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static com.fullstack.debt_manager.support.TestUsers.user;
+
+import java.math.BigDecimal;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fullstack.debt_manager.dto.CursorPage;
+import com.fullstack.debt_manager.dto.ExpenseRequest;
+import com.fullstack.debt_manager.dto.PaymentDto;
+import com.fullstack.debt_manager.dto.PaymentReceiptDto;
+import com.fullstack.debt_manager.dto.PaymentRequest;
+import com.fullstack.debt_manager.entity.Expense;
+import com.fullstack.debt_manager.entity.ExpenseStatus;
+import com.fullstack.debt_manager.entity.PaymentSnapshot;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.event.OutboxDelivery;
+import com.fullstack.debt_manager.event.PaymentRecordedEvent;
+import com.fullstack.debt_manager.repository.PaymentRepository;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@H2JpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({PaymentService.class, ExpenseService.class, UserService.class, UserSearchIndex.class,
+        BalanceService.class, BCryptPasswordEncoder.class})
+class PaymentServiceTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private BalanceService balanceService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User creator;
+    private User debtor;
+    private Long expenseId;
+
+    @BeforeEach
+    void setUp() {
+        creator = entityManager.persist(user("creator"));
+        debtor = entityManager.persist(user("debtor"));
+        entityManager.flush();
+        expenseId = expenseService.createExpense(expense("100.00"), creator).getId();
+    }
+
+    @Test
+    void partialPaymentsReduceTheBalanceUntilTheExpenseIsPaid() {
+        PaymentReceiptDto first = paymentService.recordPayment(expenseId, payment("30.00"), creator);
+        assertThat(first.getRemaining()).isEqualByComparingTo("70.00");
+        assertThat(first.getStatus()).isEqualTo(ExpenseStatus.PENDING);
+        assertThat(balanceService.getBalance(creator, debtor.getId()).getAmount()).isEqualByComparingTo("70.00");
+
+        assertThatThrownBy(() -> paymentService.recordPayment(expenseId, payment("70.01"), creator))
+                .hasMessageContaining("exceeds");
+
+        PaymentReceiptDto last = paymentService.recordPayment(expenseId, payment("70.00"), creator);
+        assertThat(last.getPaid()).isEqualByComparingTo("100.00");
+        assertThat(last.getStatus()).isEqualTo(ExpenseStatus.PAID);
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(entityManager.find(Expense.class, expenseId).getStatus()).isEqualTo(ExpenseStatus.PAID);
+        assertThat(balanceService.getBalance(creator, debtor.getId()).getAmount()).isEqualByComparingTo("0");
+
+        assertThatThrownBy(() -> paymentService.recordPayment(expenseId, payment("1.00"), creator))
+                .hasMessageContaining("Only pending or overdue");
+    }
+
+    @Test
+    void snapshotsFoldThePaymentsSoFarWithoutChangingTheTotal() {
+        PaymentReceiptDto receipt = null;
+        for (int i = 0; i < 5; i++) {
+            receipt = paymentService.recordPayment(expenseId, payment("10.00"), creator);
+        }
+        OutboxDelivery<PaymentRecordedEvent> delivery =
+                new OutboxDelivery<>(1L, 1, new PaymentRecordedEvent(expenseId, receipt.getPayment().getId()));
+        paymentService.onPaymentRecorded(delivery);
+        // a redelivery finds nothing left to fold in
+        paymentService.onPaymentRecorded(delivery);
+        PaymentReceiptDto after = paymentService.recordPayment(expenseId, payment("5.00"), creator);
+        entityManager.flush();
+        entityManager.clear();
+
+        PaymentSnapshot snapshot = entityManager.find(PaymentSnapshot.class, expenseId);
+        assertThat(snapshot.getPaidTotal()).isEqualByComparingTo("50.00");
+        assertThat(after.getPayment().getId()).isGreaterThan(snapshot.getLastPaymentId());
+        assertThat(paymentRepository.findTail(expenseId, snapshot.getLastPaymentId()).getTotal())
+                .isEqualByComparingTo("5.00");
+        assertThat(paymentRepository.paidTowards(expenseId)).isEqualByComparingTo("55.00");
+        assertThat(after.getRemaining()).isEqualByComparingTo("45.00");
+
+        paymentService.onPaymentRecorded(
+                new OutboxDelivery<>(2L, 1, new PaymentRecordedEvent(expenseId, after.getPayment().getId())));
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(entityManager.find(PaymentSnapshot.class, expenseId).getPaidTotal()).isEqualByComparingTo("55.00");
+    }
+
+    @Test
+    void recordingAPaymentIssuesTheSameStatementsHoweverManyCameBefore() {
+        for (int i = 0; i < 20; i++) {
+            paymentService.recordPayment(expenseId, payment("1.00"), creator);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        paymentService.recordPayment(expenseId, payment("1.00"), creator);
+        entityManager.flush();
+
+        // the locking read, the amount paid, the INSERT and one balance delta
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void keepsPaymentsOutOfReachOfEditsThatWouldLoseThem() {
+        paymentService.recordPayment(expenseId, payment("40.00"), creator);
+        User stranger = entityManager.persist(user("stranger"));
+
+        assertThatThrownBy(() -> paymentService.recordPayment(expenseId, payment("1.00"), stranger))
+                .hasMessageContaining("expenses you created");
+        assertThatThrownBy(() -> expenseService.updateExpense(expenseId, expense("39.99"), creator))
+                .hasMessageContaining("already paid");
+        assertThatThrownBy(() -> expenseService.deleteExpense(expenseId, creator))
+                .hasMessageContaining("cancel it instead");
+
+        expenseService.updateExpense(expenseId, expense("60.00"), creator);
+        assertThat(balanceService.getBalance(creator, debtor.getId()).getAmount()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void debtorsCannotRecordPaymentsAgainstTheirOwnDebt() {
+        assertThatThrownBy(() -> paymentService.recordPayment(expenseId, payment("100.00"), debtor))
+                .hasMessageContaining("expenses you created");
+
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(paymentRepository.paidTowards(expenseId)).isEqualByComparingTo("0");
+        assertThat(entityManager.find(Expense.class, expenseId).getStatus()).isEqualTo(ExpenseStatus.PENDING);
+        assertThat(balanceService.getBalance(creator, debtor.getId()).getAmount()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void listsPaymentsNewestFirstAPageAtATime() {
+        for (int i = 1; i <= 5; i++) {
+            paymentService.recordPayment(expenseId, payment(i + ".00"), creator);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        CursorPage<PaymentDto> first = paymentService.getPayments(expenseId, null, 3, creator);
+        assertThat(first.getItems()).extracting(PaymentDto::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("5"), new BigDecimal("4"), new BigDecimal("3"));
+        CursorPage<PaymentDto> second = paymentService.getPayments(expenseId, first.getNextCursor(), 3, debtor);
+        assertThat(second.getItems()).extracting(PaymentDto::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("2"), new BigDecimal("1"));
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.getItems().get(0).getRecordedBy().getId()).isEqualTo(creator.getId());
+    }
+
+    private ExpenseRequest expense(String amount) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setDescription("Rent");
+        request.setAmount(new BigDecimal(amount));
+        request.setDebtorId(debtor.getId());
+        return request;
+    }
+
+    private static PaymentRequest payment(String amount) {
+        PaymentRequest request = new PaymentRequest();
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+}
@@ -0,0 +1,46 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class SettlementPlannerTest {
+
+    @Test
+    void settlesEveryoneWithAtMostNMinusOneTransfers() {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] net = new long[500];
+        long sum = 0;
+        for (int i = 0; i < net.length - 1; i++) {
+            net[i] = random.nextLong(-10_000, 10_000);
+            sum += net[i];
+        }
+        net[net.length - 1] = -sum;
+
+        SettlementPlanner.Transfers transfers = SettlementPlanner.plan(net);
+
+        long[] settled = net.clone();
+        for (int i = 0; i < transfers.size(); i++) {
+            assertThat(transfers.amount(i)).isPositive();
+            settled[transfers.from(i)] += transfers.amount(i);
+            settled[transfers.to(i)] -= transfers.amount(i);
+        }
+        assertThat(settled).containsOnly(0L);
+        assertThat(transfers.size()).isLessThan(net.length);
+    }
+
+    @Test
+    void chainCollapsesToSingleTransfer() {
+        // A owes B 10, B owes C 10: A pays C directly
+        long[] net = {-1000, 0, 1000};
+
+        SettlementPlanner.Transfers transfers = SettlementPlanner.plan(net);
+
+        assertThat(transfers.size()).isEqualTo(1);
+        assertThat(transfers.from(0)).isZero();
+        assertThat(transfers.to(0)).isEqualTo(2);
+        assertThat(transfers.amount(0)).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,88 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static com.fullstack.debt_manager.support.TestUsers.user;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.fullstack.debt_manager.dto.ExpenseRequest;
+import com.fullstack.debt_manager.dto.SettlementDto;
+import com.fullstack.debt_manager.entity.User;
+import com.fullstack.debt_manager.support.H2JpaTest;
+
+@H2JpaTest
+@Import({SettlementService.class, CustomerService.class, ExpenseService.class, UserService.class,
+        UserSearchIndex.class, BalanceService.class, BCryptPasswordEncoder.class})
+class SettlementServiceTest {
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(user("alice"));
+        bob = entityManager.persist(user("bob"));
+        carol = entityManager.persist(user("carol"));
+        entityManager.flush();
+    }
+
+    @Test
+    void leavesOutDebtsBetweenOtherPeopleEvenWhenTheyAreCustomers() {
+        customerService.addCustomer(bob.getId(), alice);
+        customerService.addCustomer(carol.getId(), alice);
+        expenseService.createExpense(request(bob, "50.00"), carol);
+
+        assertThat(settlementService.getSettlementPlan(alice)).isEmpty();
+
+        expenseService.createExpense(request(bob, "10.00"), alice);
+        List<SettlementDto> plan = settlementService.getSettlementPlan(alice);
+
+        assertThat(plan).hasSize(1);
+        assertThat(plan.get(0).getFrom().getId()).isEqualTo(bob.getId());
+        assertThat(plan.get(0).getTo().getId()).isEqualTo(alice.getId());
+        assertThat(plan.get(0).getAmount()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void routesAroundTheUserWhenThatSavesATransfer() {
+        // bob owes alice, alice owes carol: bob can pay carol directly
+        expenseService.createExpense(request(bob, "20.00"), alice);
+        expenseService.createExpense(request(alice, "20.00"), carol);
+
+        List<SettlementDto> plan = settlementService.getSettlementPlan(alice);
+
+        assertThat(plan).hasSize(1);
+        assertThat(plan.get(0).getFrom().getId()).isEqualTo(bob.getId());
+        assertThat(plan.get(0).getTo().getId()).isEqualTo(carol.getId());
+        assertThat(plan.get(0).getAmount()).isEqualByComparingTo("20.00");
+    }
+
+    private static ExpenseRequest request(User debtor, String amount) {
+        ExpenseRequest request = new ExpenseRequest();
+        request.setDescription("Dinner");
+        request.setAmount(new BigDecimal(amount));
+        request.setDebtorId(debtor.getId());
+        return request;
+    }
+}
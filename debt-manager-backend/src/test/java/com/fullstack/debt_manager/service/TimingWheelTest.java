@@ -0,0 +1,53 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(Duration.ofSeconds(1), Duration.ofSeconds(10), 0);
+
+    @Test
+    void firesItemsOnceTheirDeadlinePasses() {
+        wheel.schedule("a", 2_500);
+        wheel.schedule("b", 2_900);
+        wheel.schedule("c", 7_000);
+
+        assertThat(wheel.advance(2_000)).isEmpty();
+        assertThat(wheel.advance(2_600)).containsExactly("a");
+        assertThat(wheel.advance(3_000)).containsExactly("b");
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(9_000)).containsExactly("c");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void firesOverdueItemsOnTheNextAdvance() {
+        wheel.advance(5_000);
+
+        wheel.schedule("late", 1_000);
+
+        assertThat(wheel.advance(5_000)).containsExactly("late");
+    }
+
+    @Test
+    void rejectsDeadlinesBeyondOneRevolution() {
+        assertThat(wheel.schedule("far", 11_000)).isFalse();
+        assertThat(wheel.schedule("near", 10_500)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void catchesUpAfterAPauseLongerThanTheSpan() {
+        wheel.schedule("a", 4_000);
+        wheel.advance(3_000);
+        wheel.schedule("b", 12_000);
+
+        assertThat(wheel.advance(60_000)).containsExactlyInAnyOrder("a", "b");
+        assertThat(wheel.schedule("c", 65_000)).isTrue();
+        assertThat(wheel.advance(65_000)).containsExactly("c");
+    }
+}
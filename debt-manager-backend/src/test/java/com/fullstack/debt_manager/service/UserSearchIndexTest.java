@@ -0,0 +1,108 @@
+package com.fullstack.debt_manager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fullstack.debt_manager.repository.UserRepository;
+import com.fullstack.debt_manager.repository.UserSearchTerms;
+
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex(null, 1000);
+        index.add(1L, "anna", "anna@example.com", "Anna Smith");
+        index.add(2L, "annabel", "bel@example.com", "Annabel Lee");
+        index.add(3L, "joanna", "jo@example.com", "Joanna Brown");
+        index.add(4L, "bob", "bob@example.com", "Bob Annan");
+    }
+
+    @Test
+    void ranksExactThenPrefixThenInfix() {
+        assertThat(index.search("anna", null, 10)).containsExactly(1L, 2L, 4L, 3L);
+    }
+
+    @Test
+    void excludesCallerAndCapsResults() {
+        assertThat(index.search("anna", 1L, 2)).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void shortQueriesMatchPrefixesOnly() {
+        assertThat(index.search("Jo", null, 10)).containsExactly(3L);
+    }
+
+    @Test
+    void rejectsTrigramFalsePositives() {
+        // "ann" and "nna" both occur in every name above, but none contains "annna"
+        assertThat(index.search("annna", null, 10)).isEmpty();
+    }
+
+    @Test
+    void localRegistrationsDoNotHideLowerIdsCommittedElsewhere() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findSearchTermsAfter(anyLong(), any())).thenReturn(List.of());
+        UserSearchIndex index = new UserSearchIndex(userRepository, 10);
+        index.load();
+
+        // Registered here, while id 7 from another instance has not committed yet
+        index.add(8L, "local", "local@example.com", null);
+        when(userRepository.findSearchTermsAfter(eq(0L), any()))
+                .thenReturn(List.of(terms(7L, "remote"), terms(8L, "local")));
+        index.refresh();
+
+        assertThat(index.search("remote", null, 10)).containsExactly(7L);
+    }
+
+    @Test
+    void refreshesRereadAnOverlapBelowTheHighestIdSeen() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findSearchTermsAfter(eq(0L), any()))
+                .thenReturn(List.of(terms(20L, "first"), terms(25L, "second")));
+        UserSearchIndex index = new UserSearchIndex(userRepository, 10);
+        index.load();
+
+        // 18 took its id before 25 but committed after the first load
+        when(userRepository.findSearchTermsAfter(eq(15L), any()))
+                .thenReturn(List.of(terms(18L, "late"), terms(20L, "first"), terms(25L, "second")));
+        index.refresh();
+
+        assertThat(index.search("late", null, 10)).containsExactly(18L);
+        assertThat(index.search("first", null, 10)).containsExactly(20L);
+    }
+
+    private static UserSearchTerms terms(Long id, String username) {
+        return new UserSearchTerms() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return username + "@example.com";
+            }
+
+            @Override
+            public String getFullName() {
+                return null;
+            }
+        };
+    }
+}
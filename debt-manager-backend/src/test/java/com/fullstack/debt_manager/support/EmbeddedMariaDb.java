@@ -0,0 +1,33 @@
+package com.fullstack.debt_manager.support;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+/**
+ * Starts a throwaway MariaDB on a free port for tests that need MySQL behaviour H2 does not
+ * have, such as streaming result sets. Tests define their own {@code DataSource} on top of it.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedMariaDb {
+
+    public static String url(DB mariaDb) {
+        return "jdbc:mysql://localhost:" + mariaDb.getConfiguration().getPort() +
+                "/debt_manager?createDatabaseIfNotExist=true&useSSL=false";
+    }
+
+    @Bean(destroyMethod = "stop")
+    DB mariaDb() throws Exception {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(0);
+        if ("root".equals(System.getProperty("user.name"))) {
+            // mysqld refuses to start as root unless told to
+            config.addArg("--user=root");
+        }
+        DB db = DB.newEmbeddedDB(config.build());
+        db.start();
+        return db;
+    }
+}
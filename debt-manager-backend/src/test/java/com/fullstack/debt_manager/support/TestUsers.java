@@ -0,0 +1,33 @@
+package com.fullstack.debt_manager.support;
+
+import com.fullstack.debt_manager.dto.RegisterRequest;
+import com.fullstack.debt_manager.entity.User;
+
+/**
+ * Users for tests, each derived from a username alone.
+ */
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    /** An unsaved user. */
+    public static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setFullName(username);
+        return user;
+    }
+
+    /** A sign-up request that passes validation. */
+    public static RegisterRequest register(String username) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword("secret123");
+        request.setFullName(username);
+        return request;
+    }
+}
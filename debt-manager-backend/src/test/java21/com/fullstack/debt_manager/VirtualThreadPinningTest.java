@@ -0,0 +1,140 @@
+package com.fullstack.debt_manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+
+import com.fullstack.debt_manager.security.PrincipalCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Runs the blocking paths a request takes on virtual threads and fails if any of them parks
+ * while pinned to its carrier, as reported by the {@code jdk.VirtualThreadPinned} JFR event.
+ * Only built with the {@code java21} Maven profile.
+ */
+class VirtualThreadPinningTest {
+
+    private static final int CONCURRENCY = 64;
+
+    private static DB mariaDb;
+    private static HikariDataSource dataSource;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(0);
+        if ("root".equals(System.getProperty("user.name"))) {
+            config.addArg("--user=root");
+        }
+        mariaDb = DB.newEmbeddedDB(config.build());
+        mariaDb.start();
+
+        // Same driver and pool as production, fewer connections than threads so callers queue
+        HikariConfig hikari = new HikariConfig();
+        hikari.setJdbcUrl("jdbc:mysql://localhost:" + mariaDb.getConfiguration().getPort()
+                + "/test?useSSL=false");
+        hikari.setUsername("root");
+        hikari.setMaximumPoolSize(8);
+        dataSource = new HikariDataSource(hikari);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        dataSource.close();
+        mariaDb.stop();
+    }
+
+    @Test
+    void jdbcThroughHikariDoesNotPin() throws Exception {
+        List<RecordedEvent> pinned = recordPinning(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT SLEEP(0.02)");
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+            }
+            return null;
+        });
+
+        assertThat(pinned).isEmpty();
+    }
+
+    @Test
+    void principalLookupDoesNotPin() throws Exception {
+        PrincipalCache principalCache = new PrincipalCache(10_000, Duration.ofMinutes(5));
+        Date issuedAt = new Date();
+
+        List<RecordedEvent> pinned = recordPinning(() -> principalCache.get("alice", issuedAt, username -> {
+            sleepLikeAQuery();
+            return User.withUsername(username).password("x").build();
+        }));
+
+        assertThat(pinned).isEmpty();
+    }
+
+    // Control: proves the recording catches pinning. A plain Caffeine load runs inside
+    // ConcurrentHashMap.compute, which is what PrincipalCache and the summary cache avoid.
+    @Test
+    void caffeineComputeLoadPins() throws Exception {
+        Cache<String, String> cache = Caffeine.newBuilder().build();
+
+        List<RecordedEvent> pinned = recordPinning(() -> cache.get("alice", key -> {
+            sleepLikeAQuery();
+            return key;
+        }));
+
+        assertThat(pinned).isNotEmpty();
+    }
+
+    private static List<RecordedEvent> recordPinning(Callable<?> task) throws Exception {
+        List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", events::add);
+            recording.startAsync();
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            recording.stop();
+        }
+        return events;
+    }
+
+    private static void sleepLikeAQuery() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+-- Data for QueryPlanTest. Plans chosen on near-empty tables say nothing, so populate enough
+-- users, customers and expenses for the optimizer's cost model to prefer an index.
+
+CREATE TABLE fixture_digits (d int NOT NULL PRIMARY KEY);
+INSERT INTO fixture_digits VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9);
+
+-- 2,000 users
+INSERT INTO users (id, username, email, password, full_name, created_at)
+SELECT n + 1, CONCAT('user', n + 1), CONCAT('user', n + 1, '@example.com'), 'x',
+       CONCAT('User ', n + 1), '2024-01-01 00:00:00'
+FROM (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d AS n
+      FROM fixture_digits a, fixture_digits b, fixture_digits c, fixture_digits e) numbers
+WHERE n < 2000;
+
+-- Five customers per user
+INSERT INTO customers (user_id, customer_user_id, created_at)
+SELECT u.id, MOD(u.id + k.d * 37, 2000) + 1, '2024-01-01 00:00:00'
+FROM users u JOIN fixture_digits k ON k.d BETWEEN 1 AND 5;
+
+-- 100,000 expenses spread over every user, status and a year of due dates
+INSERT INTO expenses (description, amount, creator_id, debtor_id, status, created_at, updated_at, due_date)
+SELECT CONCAT('Expense ', n), 10.00 + MOD(n, 90),
+       MOD(n, 2000) + 1,
+       MOD(n + 1 + MOD(n, 1999), 2000) + 1,
+       ELT(1 + MOD(n, 3), 'PENDING', 'PAID', 'CANCELLED'),
+       '2024-01-01 00:00:00' + INTERVAL n MINUTE,
+       '2024-01-01 00:00:00' + INTERVAL n MINUTE,
+       '2024-01-01 00:00:00' + INTERVAL MOD(n, 365) DAY
+FROM (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d + 10000 * f.d AS n
+      FROM fixture_digits a, fixture_digits b, fixture_digits c, fixture_digits e, fixture_digits f) numbers;
+
+INSERT INTO balances (user_low_id, user_high_id, amount, updated_at)
+SELECT LEAST(creator_id, debtor_id), GREATEST(creator_id, debtor_id),
+       SUM(CASE WHEN creator_id < debtor_id THEN amount ELSE -amount END), NOW(6)
+FROM expenses
+WHERE status = 'PENDING'
+GROUP BY LEAST(creator_id, debtor_id), GREATEST(creator_id, debtor_id);
+
+-- 20,000 expense and 10,000 customer tombstones, ten and five per user
+INSERT INTO tombstones (entity_type, entity_id, user_id, deleted_at)
+SELECT 'EXPENSE', 100000 + n, MOD(n, 2000) + 1, '2024-01-01 00:00:00' + INTERVAL n MINUTE
+FROM (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d AS n
+      FROM fixture_digits a, fixture_digits b, fixture_digits c, fixture_digits e) numbers
+CROSS JOIN fixture_digits copies
+WHERE copies.d < 2;
+
+INSERT INTO tombstones (entity_type, entity_id, user_id, deleted_at)
+SELECT 'CUSTOMER', MOD(n + 7, 2000) + 1, MOD(n, 2000) + 1, '2024-01-01 00:00:00' + INTERVAL n MINUTE
+FROM (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d AS n
+      FROM fixture_digits a, fixture_digits b, fixture_digits c, fixture_digits e) numbers;
+
+-- 10,000 delivered outbox events and a short queue of pending ones, half of them due
+INSERT INTO outbox_events (event_type, payload, created_at, available_at, attempts, processed_at)
+SELECT 'ExpenseChangedEvent', '{}', '2024-01-01 00:00:00' + INTERVAL n MINUTE, NULL, 1,
+       '2024-01-01 00:00:01' + INTERVAL n MINUTE
+FROM (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d AS n
+      FROM fixture_digits a, fixture_digits b, fixture_digits c, fixture_digits e) numbers;
+
+INSERT INTO outbox_events (event_type, payload, created_at, available_at, attempts)
+SELECT 'ExpenseChangedEvent', '{}', '2024-06-01 00:00:00',
+       '2024-05-31 23:59:55' + INTERVAL (a.d + 10 * b.d) SECOND, a.d
+FROM fixture_digits a, fixture_digits b;
+
+-- 50,000 payments, five each on 10,000 pending expenses, and snapshots covering the first half
+INSERT INTO payments (expense_id, amount, recorded_by_id, paid_at)
+SELECT 3 * n + 1, 1.00, MOD(3 * n, 2000) + 1, '2024-01-01 00:00:00' + INTERVAL n MINUTE
+FROM (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d AS n
+      FROM fixture_digits a, fixture_digits b, fixture_digits c, fixture_digits e) numbers
+CROSS JOIN fixture_digits copies
+WHERE copies.d < 5;
+
+INSERT INTO payment_snapshots (expense_id, paid_total, last_payment_id, taken_at)
+SELECT expense_id, SUM(amount), MAX(id), '2024-06-01 00:00:00'
+FROM payments
+WHERE id <= 25000
+GROUP BY expense_id;
+
+DROP TABLE fixture_digits;
+
+ANALYZE TABLE users, customers, expenses, balances, tombstones, outbox_events, payments, payment_snapshots;